@@ -0,0 +1,52 @@
+package com.sararahmani.site.backend.benchmark;
+
+import com.sararahmani.site.backend.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Coût de la génération et de la vérification d'un JWT.
+// verifiedCacheSize = 0 mesure la vérification de signature seule (pas de cache).
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyForJmhPurposesOnly1234567890123456789012345678";
+    private static final Map<String, Object> CLAIMS = Map.of(
+            JwtService.CLAIM_ROLE, "PATIENT",
+            JwtService.CLAIM_USER_ID, 42L,
+            JwtService.CLAIM_TOKEN_VERSION, 0
+    );
+
+    @Param({"0", "10000"})
+    private long verifiedCacheSize;
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 86_400_000L, verifiedCacheSize);
+        token = jwtService.generateToken("patient@example.com", CLAIMS);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("patient@example.com", CLAIMS);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token);
+    }
+
+    @Benchmark
+    public String extractSubject() {
+        return jwtService.extractSubject(token);
+    }
+}
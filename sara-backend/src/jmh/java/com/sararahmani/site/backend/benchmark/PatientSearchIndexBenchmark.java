@@ -0,0 +1,64 @@
+package com.sararahmani.site.backend.benchmark;
+
+import com.sararahmani.site.backend.dto.PatientDto;
+import com.sararahmani.site.backend.repository.PatientRepository;
+import com.sararahmani.site.backend.service.PatientSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Recherche au fil de la frappe sur un index de 50 000 patients (noms français générés) :
+// préfixe court, nom complet, nom avec une faute, deux mots, téléphone. Objectif : moins d'une milliseconde
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatientSearchIndexBenchmark {
+
+    private static final String[] NOMS = {
+            "Martin", "Bernard", "Thomas", "Petit", "Robert", "Richard", "Durand", "Dubois", "Moreau", "Laurent",
+            "Simon", "Michel", "Lefèvre", "Leroy", "Roux", "David", "Bertrand", "Morel", "Fournier", "Girard"
+    };
+    private static final String[] PRENOMS = {
+            "Hélène", "Jean", "Marie", "François", "Léa", "Noé", "Chloé", "Lucas", "Inès", "Gaël",
+            "Zoé", "Jérôme", "Anaïs", "Maël", "Éloïse", "Raphaël", "Célia", "Benoît", "Agnès", "Loïc"
+    };
+
+    @Param({"50000"})
+    private int patients;
+
+    @Param({"d", "dubois", "duboid", "helene mor", "06 12 3"})
+    private String query;
+
+    private PatientSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<PatientDto> rows = new ArrayList<>(patients);
+        for (long id = 1; id <= patients; id++) {
+            String nom = NOMS[random.nextInt(NOMS.length)] + (id % 7 == 0 ? "-" + NOMS[random.nextInt(NOMS.length)] : "");
+            String prenom = PRENOMS[random.nextInt(PRENOMS.length)];
+            rows.add(new PatientDto(id, nom, prenom, "patient" + id + "@example.com",
+                    String.format("06 %02d %02d %02d %02d", random.nextInt(100), random.nextInt(100),
+                            random.nextInt(100), random.nextInt(100))));
+        }
+        PatientRepository repository = mock(PatientRepository.class);
+        when(repository.findAllForSearch()).thenReturn(rows);
+        index = new PatientSearchIndex(repository);
+        index.rebuild();
+    }
+
+    @Benchmark
+    public List<PatientDto> search() {
+        return index.search(query, 20);
+    }
+}
@@ -0,0 +1,50 @@
+package com.sararahmani.site.backend.benchmark;
+
+import com.sararahmani.site.backend.service.TokenGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Génération des tokens email : UUID.randomUUID() (SecureRandom partagé) contre TokenGenerator
+// (DRBG répartis), sur 1 thread puis sur tous les coeurs. Le débit de TokenGenerator
+// doit croître avec le nombre de threads, celui d'UUID plafonner
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenGeneratorBenchmark {
+
+    private TokenGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new TokenGenerator(32);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String uuidSingleThread() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String uuidAllCores() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String generatorSingleThread() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generatorAllCores() {
+        return generator.generate();
+    }
+}
@@ -0,0 +1,83 @@
+package com.sararahmani.site.backend.config;
+
+import com.sararahmani.site.backend.dto.UserAuthState;
+import com.sararahmani.site.backend.entity.Role;
+import com.sararahmani.site.backend.entity.User;
+import com.sararahmani.site.backend.repository.UserRepository;
+import com.sararahmani.site.backend.service.JwtService;
+import com.sararahmani.site.backend.service.UserPrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Coût par requête authentifiée du filtre JWT (repository mocké : on mesure le filtre, pas la base).
+// Dans le même package que le filtre pour appeler doFilterInternal directement.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyForJmhPurposesOnly1234567890123456789012345678";
+    private static final String EMAIL = "patient@example.com";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"true", "false"})
+    private boolean stateless;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        User user = User.builder()
+                .id(42L)
+                .email(EMAIL)
+                .password("hash")
+                .nom("Martin")
+                .prenom("Pierre")
+                .role(Role.PATIENT)
+                .enabled(true)
+                .build();
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(userRepository.findAuthStateById(42L)).thenReturn(Optional.of(new UserAuthState(0, true)));
+
+        JwtService jwtService = new JwtService(SECRET, 86_400_000L);
+        String token = jwtService.generateToken(EMAIL, Map.of(
+                JwtService.CLAIM_ROLE, Role.PATIENT.name(),
+                JwtService.CLAIM_USER_ID, 42L,
+                JwtService.CLAIM_TOKEN_VERSION, 0
+        ));
+
+        filter = new JwtAuthenticationFilter(jwtService, userRepository, new UserPrincipalCache(60, 10_000, 30), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "statelessAuthentication", stateless);
+
+        request = new MockHttpServletRequest("GET", "/api/appointments/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object authenticate() throws Exception {
+        filter.doFilterInternal(request, response, NO_OP_CHAIN);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
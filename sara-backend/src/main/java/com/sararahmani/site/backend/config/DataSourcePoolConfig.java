@@ -0,0 +1,43 @@
+package com.sararahmani.site.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+// Taille du pool Hikari dérivée du nombre de coeurs (datasource.pool.connections-per-core > 0) :
+// coeurs x connections-per-core + 1, pool fixe (minimum-idle = maximum) pour ne pas ouvrir de
+// connexions pendant un pic. Une valeur explicite de spring.datasource.hikari.maximum-pool-size l'emporte.
+@Slf4j
+@Configuration
+public class DataSourcePoolConfig {
+
+    static final String MAXIMUM_POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+
+    // Static : post-processeur instancié avant les autres beans de la configuration
+    @Bean
+    static BeanPostProcessor hikariPoolSizer(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    int perCore = environment.getProperty("datasource.pool.connections-per-core", Integer.class, 0);
+                    if (perCore > 0 && !Binder.get(environment).bind(MAXIMUM_POOL_SIZE, Integer.class).isBound()) {
+                        int size = poolSize(Runtime.getRuntime().availableProcessors(), perCore);
+                        dataSource.setMaximumPoolSize(size);
+                        dataSource.setMinimumIdle(size);
+                        log.info("Pool {} : {} connexions ({} par coeur)", dataSource.getPoolName(), size, perCore);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    static int poolSize(int cores, int connectionsPerCore) {
+        return cores * connectionsPerCore + 1;
+    }
+}
@@ -1,13 +1,20 @@
 package com.sararahmani.site.backend.config;
 
+import com.sararahmani.site.backend.dto.UserAuthState;
+import com.sararahmani.site.backend.entity.Role;
 import com.sararahmani.site.backend.entity.User;
 import com.sararahmani.site.backend.repository.UserRepository;
 import com.sararahmani.site.backend.service.JwtService;
+import com.sararahmani.site.backend.service.JwtVerification;
+import com.sararahmani.site.backend.service.UserPrincipalCache;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,13 +23,39 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final UserPrincipalCache principalCache;
+
+    // Durée de vérification du token, par résultat (valid, expired, invalid_signature...)
+    private final Timer validVerifyTimer;
+    private final Map<JwtVerification.Failure, Timer> failedVerifyTimers = new EnumMap<>(JwtVerification.Failure.class);
+
+    // true : principal construit depuis les claims (id, email, rôle) sans charger l'entité
+    @Value("${security.jwt.stateless:true}")
+    private boolean statelessAuthentication;
+
+    public JwtAuthenticationFilter(
+            JwtService jwtService,
+            UserRepository userRepository,
+            UserPrincipalCache principalCache,
+            MeterRegistry meterRegistry
+    ) {
+        this.jwtService = jwtService;
+        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.validVerifyTimer = verifyTimer(meterRegistry, "valid");
+        for (JwtVerification.Failure failure : JwtVerification.Failure.values()) {
+            failedVerifyTimers.put(failure, verifyTimer(meterRegistry, failure.name().toLowerCase()));
+        }
+    }
 
     @Override
     protected void doFilterInternal(
@@ -40,15 +73,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String jwt = authHeader.substring(7);
 
-        if (!jwtService.isTokenValid(jwt)) {
+        // Une seule vérification de signature par requête
+        long start = System.nanoTime();
+        final JwtVerification verification = jwtService.verify(jwt);
+        Timer timer = verification.isValid() ? validVerifyTimer : failedVerifyTimers.get(verification.failure());
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!verification.isValid()) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        final String email = jwtService.extractSubject(jwt);
+        final String email = verification.subject();
 
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            User user = userRepository.findByEmail(email).orElse(null);
+            User user = resolvePrincipal(verification.claims());
 
             if (user != null && user.isEnabled()) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -63,4 +102,49 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private User resolvePrincipal(Claims claims) {
+        Long userId = claims.get(JwtService.CLAIM_USER_ID, Long.class);
+        String role = claims.get(JwtService.CLAIM_ROLE, String.class);
+        Integer tokenVersion = claims.get(JwtService.CLAIM_TOKEN_VERSION, Integer.class);
+
+        // Les anciens tokens sans uid/ver repassent par le chargement de l'entité
+        if (statelessAuthentication && userId != null && role != null && tokenVersion != null) {
+            UserAuthState state = principalCache.getAuthState(userId, userRepository::findAuthStateById)
+                    .orElse(null);
+
+            if (state == null || !state.enabled() || state.tokenVersion() != tokenVersion) {
+                return null;
+            }
+
+            return User.builder()
+                    .id(userId)
+                    .email(claims.getSubject())
+                    .role(Role.valueOf(role))
+                    .tokenVersion(tokenVersion)
+                    .enabled(true)
+                    .build();
+        }
+
+        User user = principalCache.get(claims.getSubject(), userRepository::findByEmail).orElse(null);
+
+        // Révocation vérifiée sur l'état lu en base (TTL court) : l'entité peut venir du cache
+        // de second niveau, en retard d'une réinitialisation faite sur une autre instance
+        if (user != null && tokenVersion != null) {
+            UserAuthState state = principalCache.getAuthState(user.getId(), userRepository::findAuthStateById)
+                    .orElse(null);
+            if (state == null || !state.enabled() || state.tokenVersion() != tokenVersion) {
+                return null;
+            }
+        }
+
+        return user;
+    }
+
+    private static Timer verifyTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("security.jwt.verify")
+                .description("Vérification du JWT (signature ou cache)")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
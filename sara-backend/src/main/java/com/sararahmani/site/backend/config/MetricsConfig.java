@@ -0,0 +1,50 @@
+package com.sararahmani.site.backend.config;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sararahmani.site.backend.service.JwtService;
+import com.sararahmani.site.backend.service.UserPrincipalCache;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Function;
+
+// Timers @Timed des services, compteurs des caches d'authentification.
+// Les requêtes des repositories (spring.data.repository.invocations) et le pool Hikari
+// sont instrumentés automatiquement par Spring Boot.
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "sara.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder authenticationCacheMetrics(JwtService jwtService, UserPrincipalCache principalCache) {
+        return registry -> {
+            bindCache(registry, "jwt.verified", jwtService, JwtService::verificationCacheStats);
+            bindCache(registry, "user.principal", principalCache, UserPrincipalCache::stats);
+            bindCache(registry, "user.auth-state", principalCache, UserPrincipalCache::authStateStats);
+        };
+    }
+
+    // Mêmes noms que CaffeineCacheMetrics : cache.gets{result=hit|miss}, cache.evictions.
+    // Le registre ne garde qu'une référence faible sur owner : on passe le bean, pas une lambda.
+    private static <T> void bindCache(MeterRegistry registry, String name, T owner, Function<T, CacheStats> stats) {
+        FunctionCounter.builder("cache.gets", owner, o -> stats.apply(o).hitCount())
+                .tag("cache", name).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", owner, o -> stats.apply(o).missCount())
+                .tag("cache", name).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", owner, o -> stats.apply(o).evictionCount())
+                .tag("cache", name)
+                .register(registry);
+    }
+}
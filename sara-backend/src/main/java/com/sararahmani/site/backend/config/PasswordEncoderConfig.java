@@ -0,0 +1,48 @@
+package com.sararahmani.site.backend.config;
+
+import com.sararahmani.site.backend.service.AdaptiveBCryptPasswordEncoder;
+import com.sararahmani.site.backend.service.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+@Slf4j
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final String BCRYPT_ID = "bcrypt";
+
+    // Hash préfixés {bcrypt} au coût calibré ; les anciens hash sans préfixe restent
+    // vérifiables et sont réencodés au prochain login (CustomUserDetailsService.updatePassword)
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${security.password.bcrypt.strength:0}") int strength,
+            @Value("${security.password.bcrypt.target-ms:250}") long targetMs,
+            @Value("${security.password.bcrypt.min-strength:10}") int minStrength,
+            @Value("${security.password.bcrypt.max-strength:14}") int maxStrength,
+            @Value("${security.password.hashing.threads:0}") int threads,
+            @Value("${security.password.hashing.permits:64}") int permits,
+            @Value("${security.password.hashing.acquire-timeout-ms:200}") long acquireTimeoutMs,
+            @Value("${security.password.hashing.execution-timeout-ms:5000}") long executionTimeoutMs,
+            MeterRegistry meterRegistry
+    ) {
+        long start = System.currentTimeMillis();
+        int cost = strength > 0 ? strength : AdaptiveBCryptPasswordEncoder.calibrate(targetMs, minStrength, maxStrength);
+        log.info("BCrypt : coût {} ({} en {} ms)", cost,
+                strength > 0 ? "configuré" : "calibré", System.currentTimeMillis() - start);
+
+        AdaptiveBCryptPasswordEncoder bcrypt = new AdaptiveBCryptPasswordEncoder(cost);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, poolSize, permits, acquireTimeoutMs, executionTimeoutMs,
+                meterRegistry);
+    }
+}
@@ -0,0 +1,217 @@
+package com.sararahmani.site.backend.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sararahmani.site.backend.service.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Limitation de débit des routes /api/auth (security.rate-limit) : par IP (celle du client derrière
+// un proxy, server.forward-headers-strategy), et par email lu dans le corps JSON (le corps est mis
+// en mémoire puis rejoué pour le contrôleur)
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Au-delà, le corps n'est pas inspecté : seule la limite par IP s'applique
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<String, String> routeNames = new HashMap<>();
+    private final Map<String, Counter> rejectedCounters = new HashMap<>();
+
+    public RateLimitFilter(
+            RateLimiter rateLimiter,
+            RateLimitProperties properties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        properties.routes().forEach((name, route) -> {
+            routeNames.put(route.path(), name);
+            for (String key : new String[]{"ip", "email"}) {
+                rejectedCounters.put(name + "|" + key, Counter.builder("security.rate-limit.rejected")
+                        .description("Requêtes refusées par la limitation de débit")
+                        .tag("route", name)
+                        .tag("key", key)
+                        .register(meterRegistry));
+            }
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.enabled()
+                || !HttpMethod.POST.matches(request.getMethod())
+                || !routeNames.containsKey(pathOf(request));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String name = routeNames.get(pathOf(request));
+        RateLimitProperties.Route route = properties.routes().get(name);
+
+        if (route.perIp() != null) {
+            long wait = rateLimiter.tryAcquire(name + "|ip|" + request.getRemoteAddr(), route.perIp());
+            if (wait > 0) {
+                reject(response, name, "ip", wait);
+                return;
+            }
+        }
+
+        HttpServletRequest forwarded = request;
+        if (route.perEmail() != null && request.getContentLengthLong() <= MAX_BODY_BYTES) {
+            byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                // Corps plus long qu'annoncé (chunked) : déjà consommé, on ne peut plus le transmettre
+                response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+                return;
+            }
+            forwarded = new CachedBodyRequest(request, body);
+            String email = emailOf(body);
+            if (email != null) {
+                long wait = rateLimiter.tryAcquire(name + "|email|" + email, route.perEmail());
+                if (wait > 0) {
+                    reject(response, name, "email", wait);
+                    return;
+                }
+            }
+        }
+
+        filterChain.doFilter(forwarded, response);
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private String emailOf(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            if (email == null || !email.isTextual() || email.asText().isBlank()) {
+                return null;
+            }
+            return email.asText().trim().toLowerCase(Locale.ROOT);
+        } catch (IOException e) {
+            // JSON invalide : le contrôleur répondra 400
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, String route, String key, long waitNanos) throws IOException {
+        rejectedCounters.get(route + "|" + key).increment();
+        long retryAfterSeconds = Math.max(1, (TimeUnit.NANOSECONDS.toMillis(waitNanos) + 999) / 1000);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getWriter(), Map.of(
+                "message", "Trop de tentatives, veuillez réessayer dans quelques instants."
+        ));
+    }
+
+    // Corps lu une fois, rejoué pour la suite de la chaîne
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Lecture non bloquante : tout le corps est déjà en mémoire, donc disponible immédiatement
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(
+                    getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8
+            ));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
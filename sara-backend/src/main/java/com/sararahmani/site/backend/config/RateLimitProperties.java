@@ -0,0 +1,32 @@
+package com.sararahmani.site.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+// security.rate-limit.* : un seau par route (POST exact), par IP et/ou par email du corps JSON
+@ConfigurationProperties(prefix = "security.rate-limit")
+public record RateLimitProperties(
+        boolean enabled,
+        int maxKeys,
+        Duration idleTimeout,
+        Map<String, Route> routes
+) {
+
+    public RateLimitProperties {
+        if (maxKeys <= 0) {
+            maxKeys = 100_000;
+        }
+        if (idleTimeout == null) {
+            idleTimeout = Duration.ofMinutes(10);
+        }
+        routes = routes == null ? Map.of() : Map.copyOf(routes);
+    }
+
+    // perIp / perEmail null : pas de limite sur cette clé
+    public record Route(String path, Limit perIp, Limit perEmail) {}
+
+    // capacity : rafale autorisée ; refillPerMinute : débit soutenu
+    public record Limit(int capacity, int refillPerMinute) {}
+}
@@ -0,0 +1,83 @@
+package com.sararahmani.site.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import javax.cache.spi.CachingProvider;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+// Cache de second niveau Hibernate (JCache / Caffeine, en mémoire) pour User et Patient,
+// plus le cache d'identifiant naturel User.email (login, filtre JWT, UserDetailsService).
+// Régions déclarées ici avec leur TTL et leur taille : une région inconnue fait échouer le démarrage.
+// Instances multiples : chaque instance a son cache, une modification faite ailleurs reste visible
+// au plus ttl-seconds plus tard. Hash du mot de passe et tokenVersion ne sont donc jamais lus ici pour
+// décider : le login passe par UserRepository.findByEmailUncached, la révocation des JWT par findAuthStateById.
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String USER_REGION = "sara.user";
+    public static final String USER_EMAIL_REGION = "sara.user-email";
+    public static final String PATIENT_REGION = "sara.patient";
+    private static final List<String> REGIONS = List.of(USER_REGION, USER_EMAIL_REGION, PATIENT_REGION);
+
+    // Le fournisseur JCache partage un CacheManager par couple (URI, ClassLoader) : un ClassLoader
+    // propre au contexte Spring évite que deux contextes (tests) partagent les mêmes régions.
+    // Référence forte ici : le CacheManager Caffeine ne le garde que par WeakReference
+    private final ClassLoader cacheClassLoader = new ClassLoader(getClass().getClassLoader()) {};
+
+    // URI par défaut : Caffeine lit toute autre URI comme un fichier de configuration
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${persistence.second-level-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${persistence.second-level-cache.maximum-size:10000}") long maximumSize
+    ) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                provider.getDefaultURI(), cacheClassLoader);
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setExpiryPolicyFactory(CreatedExpiryPolicy.factoryOf(new Duration(TimeUnit.SECONDS, ttlSeconds)));
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+            // Statistiques Caffeine (recordStats) plutôt que les MBeans JCache, uniques par JVM
+            configuration.setNativeStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // cache.gets{result=hit|miss}, cache.evictions, cache.size par région
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return registry -> {
+            for (String region : REGIONS) {
+                Cache<?, ?> cache = secondLevelCacheManager.getCache(region).unwrap(Cache.class);
+                CaffeineCacheMetrics.monitor(registry, cache, region);
+            }
+        };
+    }
+}
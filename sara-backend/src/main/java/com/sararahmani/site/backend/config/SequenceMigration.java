@@ -0,0 +1,66 @@
+package com.sararahmani.site.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+// Base existante : les ids passent d'AUTO_INCREMENT à une séquence par table (<table>_seq).
+// ddl-auto: update créerait la séquence à 1, en collision avec les lignes existantes :
+// on la crée avant Hibernate, au-delà du plus grand id. Base neuve : Hibernate la crée.
+@Slf4j
+@Component(SequenceMigration.BEAN_NAME)
+public class SequenceMigration implements InitializingBean {
+
+    static final String BEAN_NAME = "sequenceMigration";
+    // allocationSize des @SequenceGenerator des entités
+    static final int ALLOCATION_SIZE = 50;
+    private static final List<String> TABLES = List.of(
+            "users", "patients", "appointments", "email_confirmations", "password_reset_tokens", "outbox"
+    );
+
+    private final DataSource dataSource;
+
+    public SequenceMigration(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor sequenceMigrationDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor(BEAN_NAME);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        for (String table : TABLES) {
+            if (!hasTable(table)) {
+                continue;
+            }
+            Long maxId = jdbc.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            // L'optimiseur pooled prend la valeur lue comme borne haute d'un bloc de ALLOCATION_SIZE ids :
+            // le premier id attribué sera maxId + 1
+            long start = (maxId == null ? 0 : maxId) + ALLOCATION_SIZE;
+            jdbc.execute("CREATE SEQUENCE IF NOT EXISTS " + table + "_seq START WITH " + start
+                    + " INCREMENT BY " + ALLOCATION_SIZE);
+            log.debug("{}_seq : départ à {} si créée", table, start);
+        }
+    }
+
+    // Schéma courant seulement (H2 a aussi une table information_schema.users)
+    private boolean hasTable(String table) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             ResultSet tables = connection.getMetaData().getTables(
+                     connection.getCatalog(), connection.getSchema(), table, new String[]{"TABLE"})) {
+            return tables.next();
+        }
+    }
+}
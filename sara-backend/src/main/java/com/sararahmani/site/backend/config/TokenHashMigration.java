@@ -0,0 +1,77 @@
+package com.sararahmani.site.backend.config;
+
+import com.sararahmani.site.backend.service.TokenHasher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+// Base existante : remplace la colonne token (VARCHAR, token en clair) par token_hash (BINARY(32)).
+// ddl-auto: update sait ajouter une colonne mais ni la remplir ni supprimer l'ancienne :
+// on le fait avant Hibernate, les tokens en cours sont hachés et leurs liens restent valides.
+// Les emails abandonnés de l'outbox perdent aussi leur token en clair : seuls les emails encore à
+// envoyer (PENDING) le gardent, le temps de l'envoi.
+@Slf4j
+@Component(TokenHashMigration.BEAN_NAME)
+public class TokenHashMigration implements InitializingBean {
+
+    static final String BEAN_NAME = "tokenHashMigration";
+    private static final List<String> TABLES = List.of("email_confirmations", "password_reset_tokens");
+
+    private final DataSource dataSource;
+
+    public TokenHashMigration(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    // L'EntityManagerFactory (et donc le ddl-auto) attend la migration
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor tokenHashMigrationDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor(BEAN_NAME);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        for (String table : TABLES) {
+            if (!hasColumn(table, "token")) {
+                continue;
+            }
+            if (!hasColumn(table, "token_hash")) {
+                jdbc.execute("ALTER TABLE " + table + " ADD COLUMN token_hash BINARY(32) NULL");
+            }
+            List<Object[]> rows = jdbc.query(
+                    "SELECT id, token FROM " + table + " WHERE token_hash IS NULL",
+                    (rs, i) -> new Object[]{TokenHasher.hash(rs.getString("token")), rs.getLong("id")}
+            );
+            jdbc.batchUpdate("UPDATE " + table + " SET token_hash = ? WHERE id = ?", rows);
+            jdbc.execute("ALTER TABLE " + table + " DROP COLUMN token");
+            log.info("{} : {} tokens migrés vers token_hash", table, rows.size());
+        }
+
+        if (hasColumn("outbox", "payload")) {
+            int redacted = jdbc.update("UPDATE outbox SET payload = NULL WHERE status <> 'PENDING' AND payload IS NOT NULL");
+            if (redacted > 0) {
+                log.info("outbox : {} tokens en clair effacés des emails envoyés ou abandonnés", redacted);
+            }
+        }
+    }
+
+    private boolean hasColumn(String table, String column) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, table, column)) {
+                return columns.next();
+            }
+        }
+    }
+}
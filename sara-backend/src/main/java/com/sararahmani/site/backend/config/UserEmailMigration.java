@@ -0,0 +1,67 @@
+package com.sararahmani.site.backend.config;
+
+import com.sararahmani.site.backend.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Base existante : les emails des comptes passent en minuscules (User.normalizeEmail), sinon un compte
+// enregistré avec des majuscules ne serait plus trouvé par l'identifiant naturel. La comparaison se fait
+// en Java : sous la collation MariaDB, insensible à la casse, email <> LOWER(email) est toujours faux.
+@Slf4j
+@Component(UserEmailMigration.BEAN_NAME)
+public class UserEmailMigration implements InitializingBean {
+
+    static final String BEAN_NAME = "userEmailMigration";
+
+    private final DataSource dataSource;
+
+    public UserEmailMigration(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor userEmailMigrationDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor(BEAN_NAME);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        if (!hasUsersTable()) {
+            return;
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.query("SELECT id, email FROM users", (ResultSet row) -> {
+            long id = row.getLong("id");
+            String email = row.getString("email");
+            String normalized = User.normalizeEmail(email);
+            if (normalized.equals(email)) {
+                return;
+            }
+            try {
+                jdbc.update("UPDATE users SET email = ? WHERE id = ?", normalized, id);
+            } catch (DuplicateKeyException e) {
+                // Deux comptes ne différant que par la casse (collation sensible) : laissé tel quel
+                log.warn("Email du compte {} non normalisé : {} existe déjà", id, normalized);
+            }
+        });
+    }
+
+    // Schéma courant seulement (H2 a aussi une table information_schema.users)
+    private boolean hasUsersTable() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             ResultSet tables = connection.getMetaData().getTables(
+                     connection.getCatalog(), connection.getSchema(), "users", new String[]{"TABLE"})) {
+            return tables.next();
+        }
+    }
+}
@@ -1,34 +1,88 @@
 package com.sararahmani.site.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sararahmani.site.backend.dto.BulkImportResult;
+import com.sararahmani.site.backend.dto.CursorPage;
 import com.sararahmani.site.backend.dto.PatientDto;
+import com.sararahmani.site.backend.dto.PatientSort;
+import com.sararahmani.site.backend.service.BulkImportService;
+import com.sararahmani.site.backend.service.ImportRecordReader;
 import com.sararahmani.site.backend.service.PatientService;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
+// Dossier des patients : réservé au cabinet (ADMIN), un patient n'accède qu'à ses RDV (/api/appointments/me)
 @RestController
 @RequestMapping("/api/patients")
-@CrossOrigin(origins = "http://localhost:4200")
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = ApiController.TOTAL_COUNT_HEADER)
 @AllArgsConstructor
 public class ApiController {
 
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final PatientService patientService;
+    private final BulkImportService bulkImportService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<PatientDto> create(@RequestBody PatientDto dto) {
         PatientDto created = patientService.create(dto);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    // Import en masse, corps lu en flux : CSV avec en-tête (nom,prenom,email,telephone) ou tableau JSON
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportResult> bulkCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importPatients(ImportRecordReader.csv(body)));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportResult> bulkJson(InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importPatients(ImportRecordReader.json(body, objectMapper)));
+    }
+
+    // q : préfixe de nom, prenom ou email ; sort : nom (défaut), prenom ou email ; page suivante via nextCursor
     @GetMapping
-    public ResponseEntity<List<PatientDto>> findAll() {
-        return ResponseEntity.ok(patientService.findAll());
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<PatientDto>> findPage(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "nom") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(patientService.findPage(q, PatientSort.from(sort), cursor, size));
+    }
+
+    // Nombre de patients correspondant à q, en en-tête X-Total-Count (pas de corps)
+    @RequestMapping(method = RequestMethod.HEAD)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> count(@RequestParam(required = false) String q) {
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(patientService.count(q)))
+                .build();
+    }
+
+    // Recherche au fil de la frappe : préfixes de nom, prénom, email ou téléphone, une faute tolérée
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<PatientDto>> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(patientService.search(q, limit));
     }
 
     @GetMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<PatientDto> findById(@PathVariable Long id) {
         return ResponseEntity.ok(patientService.findById(id));
     }
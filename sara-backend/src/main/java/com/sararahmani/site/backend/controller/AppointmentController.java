@@ -1,17 +1,31 @@
 package com.sararahmani.site.backend.controller;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sararahmani.site.backend.dto.AppointmentFilter;
 import com.sararahmani.site.backend.dto.AppointmentRequest;
 import com.sararahmani.site.backend.dto.AppointmentResponse;
+import com.sararahmani.site.backend.dto.BulkImportResult;
+import com.sararahmani.site.backend.dto.CursorPage;
+import com.sararahmani.site.backend.dto.DayAvailability;
 import com.sararahmani.site.backend.entity.User;
 import com.sararahmani.site.backend.service.AppointmentService;
+import com.sararahmani.site.backend.service.AvailabilityCalendar;
+import com.sararahmani.site.backend.service.BulkImportService;
+import com.sararahmani.site.backend.service.ImportRecordReader;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -22,6 +36,9 @@ import java.util.Map;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final AvailabilityCalendar availabilityCalendar;
+    private final BulkImportService bulkImportService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<AppointmentResponse> create(
@@ -32,6 +49,14 @@ public class AppointmentController {
         );
     }
 
+    // Créneaux libres, servis depuis le calendrier en mémoire (aucune requête SQL)
+    @GetMapping("/availability")
+    public ResponseEntity<List<DayAvailability>> getAvailability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(availabilityCalendar.availability(from, to));
+    }
+
     @GetMapping("/me")
     public ResponseEntity<List<AppointmentResponse>> getMyAppointments(
             @AuthenticationPrincipal User patient) {
@@ -48,10 +73,38 @@ public class AppointmentController {
         return ResponseEntity.ok(Map.of("message", "RDV annulé avec succès"));
     }
 
+    // Filtres optionnels : status, patientId, from, to (ISO date-heure) ; page suivante via nextCursor
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<AppointmentResponse>> getAll() {
-        return ResponseEntity.ok(appointmentService.getAllAppointments());
+    public ResponseEntity<CursorPage<AppointmentResponse>> getAll(
+            AppointmentFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(appointmentService.getAllAppointments(filter, cursor, size));
+    }
+
+    // Export de l'historique complet, écrit au fil de la lecture (NDJSON)
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(AppointmentFilter filter) {
+        StreamingResponseBody body = out -> appointmentService.exportAppointments(filter, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // Reprise d'historique, corps lu en flux : CSV avec en-tête ou tableau JSON
+    // (patientEmail, dateHeure, motif, dureeMinutes, status)
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportResult> bulkCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importAppointments(ImportRecordReader.csv(body)));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportResult> bulkJson(InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importAppointments(ImportRecordReader.json(body, objectMapper)));
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,14 @@
+package com.sararahmani.site.backend.dto;
+
+import com.sararahmani.site.backend.entity.Appointment;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// Filtres optionnels de la liste admin des RDV (null = pas de filtre), période [from, to)
+public record AppointmentFilter(
+        Appointment.Status status,
+        Long patientId,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+) {}
@@ -2,8 +2,10 @@ package com.sararahmani.site.backend.dto;
 
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.sararahmani.site.backend.entity.Appointment;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 public record AppointmentResponse(
         Long id,
@@ -19,5 +21,23 @@ public record AppointmentResponse(
         String status,
 
         boolean canPatientCancel
-) {}
+) {
+
+    // Constructeur des requêtes JPQL "SELECT new" : statut et droit d'annulation calculés ici
+    public AppointmentResponse(
+            Long id,
+            LocalDateTime dateHeure,
+            String motif,
+            String patientNom,
+            String patientPrenom,
+            Appointment.Status status
+    ) {
+        this(id, dateHeure, motif, patientNom, patientPrenom, status.name(), canPatientCancel(dateHeure, status));
+    }
+
+    public static boolean canPatientCancel(LocalDateTime dateHeure, Appointment.Status status) {
+        return ChronoUnit.MINUTES.between(LocalDateTime.now(), dateHeure) > Appointment.DELAI_ANNULATION_MINUTES
+                && status == Appointment.Status.PLANNED;
+    }
+}
 
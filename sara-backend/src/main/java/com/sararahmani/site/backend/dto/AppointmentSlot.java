@@ -0,0 +1,10 @@
+package com.sararahmani.site.backend.dto;
+
+import java.time.LocalDateTime;
+
+// Créneau occupé par un RDV, sans le patient ni le motif (calendrier des disponibilités)
+public record AppointmentSlot(
+        Long id,
+        LocalDateTime dateHeure,
+        Integer dureeMinutes
+) {}
@@ -0,0 +1,14 @@
+package com.sararahmani.site.backend.dto;
+
+import java.util.List;
+
+// Bilan d'un import en masse : errors ne détaille que les premiers rejets (rejected les compte tous)
+public record BulkImportResult(
+        long imported,
+        long rejected,
+        List<RejectedRecord> errors
+) {
+
+    // record : ligne du CSV ou position dans le tableau JSON
+    public record RejectedRecord(long record, String message) {}
+}
@@ -0,0 +1,9 @@
+package com.sararahmani.site.backend.dto;
+
+import java.util.List;
+
+// Page d'une pagination par curseur : nextCursor est null sur la dernière page
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor
+) {}
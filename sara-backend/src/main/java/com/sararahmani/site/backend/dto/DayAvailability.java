@@ -0,0 +1,10 @@
+package com.sararahmani.site.backend.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public record DayAvailability(
+        LocalDate date,
+        List<LocalTime> slots
+) {}
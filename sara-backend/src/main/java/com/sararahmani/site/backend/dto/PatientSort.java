@@ -0,0 +1,30 @@
+package com.sararahmani.site.backend.dto;
+
+import com.sararahmani.site.backend.exception.BadRequestException;
+
+import java.util.Locale;
+
+// Tri de la liste des patients : colonne indexée, départage par id (ordre total pour le curseur)
+public enum PatientSort {
+    NOM("nom"),
+    PRENOM("prenom"),
+    EMAIL("email");
+
+    private final String attribute;
+
+    PatientSort(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    public static PatientSort from(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Tri invalide : " + value + " (nom, prenom ou email)");
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.sararahmani.site.backend.dto;
+
+// Etat minimal d'un compte nécessaire pour valider un JWT sans charger l'entité User
+public record UserAuthState(
+        int tokenVersion,
+        boolean enabled
+) {}
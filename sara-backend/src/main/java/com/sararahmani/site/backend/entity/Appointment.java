@@ -1,12 +1,17 @@
 package com.sararahmani.site.backend.entity;
 
+import com.sararahmani.site.backend.service.AvailabilityCalendarListener;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_status_date_heure", columnList = "status, date_heure"),
+        @Index(name = "idx_appointments_date_heure_id", columnList = "date_heure, id")
+})
+@EntityListeners(AvailabilityCalendarListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -14,8 +19,15 @@ import java.time.LocalDateTime;
 @Builder
 public class Appointment {
 
+    public static final int DUREE_PAR_DEFAUT_MINUTES = 50;
+    // Annulation par le patient possible jusqu'à 48h avant le RDV
+    public static final int DELAI_ANNULATION_MINUTES = 48 * 60;
+
+    // Ids tirés d'une séquence par blocs de 50 (optimiseur pooled) : pas d'aller-retour par insert,
+    // ce qui permet à Hibernate de grouper les INSERT en batch JDBC (IDENTITY l'interdit)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -26,7 +38,7 @@ public class Appointment {
 
     @Builder.Default
     @Column(nullable = false)
-    private Integer dureeMinutes = 50; // 50min par défaut
+    private Integer dureeMinutes = DUREE_PAR_DEFAUT_MINUTES;
 
     @Builder.Default
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,20 @@
+package com.sararahmani.site.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// Une ligne par jour, verrouillée (SELECT ... FOR UPDATE) pendant une réservation :
+// les réservations d'un même jour sont sérialisées, les autres jours restent parallèles
+@Entity
+@Table(name = "appointment_day_locks")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class AppointmentDayLock {
+
+    @Id
+    private LocalDate jour;
+}
@@ -1,12 +1,16 @@
 package com.sararahmani.site.backend.entity;
 
+import com.sararahmani.site.backend.service.TokenHasher;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "email_confirmations")
+// Index sur expires_at : la purge (ExpiredTokenPurger) est un parcours d'intervalle
+@Table(name = "email_confirmations", indexes = @Index(name = "idx_email_confirmations_expires_at", columnList = "expires_at"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -15,11 +19,14 @@ import java.time.LocalDateTime;
 public class EmailConfirmation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_confirmations_seq")
+    @SequenceGenerator(name = "email_confirmations_seq", sequenceName = "email_confirmations_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    // SHA-256 du token envoyé par email (TokenHasher), jamais le token lui-même
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "token_hash", nullable = false, unique = true, length = TokenHasher.HASH_LENGTH)
+    private byte[] tokenHash;
 
     @Column(nullable = false)
     private String email;
@@ -1,12 +1,23 @@
 package com.sararahmani.site.backend.entity;
 
+import com.sararahmani.site.backend.config.SecondLevelCacheConfig;
+import com.sararahmani.site.backend.service.PatientSearchIndexListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "patients")
+// Index (nom, id) et (prenom, id) : recherche par préfixe et pagination par clé de GET /api/patients
+// (email : index de la contrainte unique)
+@Table(name = "patients", indexes = {
+        @Index(name = "idx_patients_nom_id", columnList = "nom, id"),
+        @Index(name = "idx_patients_prenom_id", columnList = "prenom, id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.PATIENT_REGION)
+@EntityListeners(PatientSearchIndexListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -15,7 +26,8 @@ import java.time.LocalDateTime;
 public class Patient {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patients_seq")
+    @SequenceGenerator(name = "patients_seq", sequenceName = "patients_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
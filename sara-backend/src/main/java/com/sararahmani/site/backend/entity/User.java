@@ -1,16 +1,27 @@
 package com.sararahmani.site.backend.entity;
 
+import com.sararahmani.site.backend.config.SecondLevelCacheConfig;
+import com.sararahmani.site.backend.service.UserCacheEvictionListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
 @Table(name = "users")
+// Cache de second niveau : par id, et id par email (identifiant naturel, voir UserRepository.findByEmail)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USER_REGION)
+@NaturalIdCache(region = SecondLevelCacheConfig.USER_EMAIL_REGION)
+@EntityListeners(UserCacheEvictionListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,9 +30,11 @@ import java.util.List;
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String email;
 
@@ -41,6 +54,23 @@ public class User implements UserDetails {
     @Builder.Default
     private boolean enabled = false;
 
+    // Incrémenté pour révoquer les JWT déjà émis (reset mot de passe, changement de rôle)
+    @Builder.Default
+    @Column(nullable = false)
+    private int tokenVersion = 0;
+
+    // Emails stockés et recherchés en minuscules : l'identifiant naturel (cache email -> id)
+    // compare les chaînes telles quelles, sans la collation insensible à la casse de MariaDB
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalize() {
+        email = normalizeEmail(email);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
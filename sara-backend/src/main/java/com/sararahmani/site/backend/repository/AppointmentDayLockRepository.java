@@ -0,0 +1,30 @@
+package com.sararahmani.site.backend.repository;
+
+import com.sararahmani.site.backend.entity.AppointmentDayLock;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface AppointmentDayLockRepository extends JpaRepository<AppointmentDayLock, LocalDate> {
+
+    // Insertion idempotente dans la transaction appelante : une ligne déjà présente, ou insérée en parallèle,
+    // n'est pas une erreur (l'insertion concurrente attend le commit de la première au lieu d'échouer)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointment_day_locks"))
+    @Query(value = "INSERT INTO appointment_day_locks (jour) VALUES (:jour) ON DUPLICATE KEY UPDATE jour = jour",
+            nativeQuery = true)
+    int createIfAbsent(@Param("jour") LocalDate jour);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM AppointmentDayLock l WHERE l.jour = :jour")
+    Optional<AppointmentDayLock> lockDay(@Param("jour") LocalDate jour);
+}
@@ -1,28 +1,92 @@
 package com.sararahmani.site.backend.repository;
 
+import com.sararahmani.site.backend.dto.AppointmentResponse;
+import com.sararahmani.site.backend.dto.AppointmentSlot;
 import com.sararahmani.site.backend.entity.Appointment;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
-    // Pour patient (méthodes Spring Data JPA auto)
-    List<Appointment> findByPatientIdOrderByDateHeureDesc(Long patientId);
+    // Listes : projection directe en AppointmentResponse, patient joint dans la même requête
+    // (pas de chargement paresseux du patient ligne par ligne)
+    String RESPONSE_SELECT = "SELECT new com.sararahmani.site.backend.dto.AppointmentResponse(" +
+            "a.id, a.dateHeure, a.motif, p.nom, p.prenom, a.status) " +
+            "FROM Appointment a JOIN a.patient p ";
+
+    // Pour patient
+    @Query(RESPONSE_SELECT + "WHERE p.id = :patientId ORDER BY a.dateHeure DESC")
+    List<AppointmentResponse> findResponsesByPatientId(@Param("patientId") Long patientId);
+
     List<Appointment> findByPatientIdAndStatusOrderByDateHeureDesc(Long patientId, Appointment.Status status);
 
-    // Disponibilités (creneaux libres) ✅ CORRIGÉ
-    @Query("SELECT a FROM Appointment a WHERE a.dateHeure >= :from AND a.dateHeure < :to AND a.status = 'PLANNED'")
-    List<Appointment> findAvailableSlots(
+    // Conflit de créneau : chevauchement [dateHeure, dateHeure + durée + pause) calculé en base,
+    // sans hydrater d'entités. La borne windowStart limite le parcours de l'index (status, date_heure).
+    @Query("SELECT COUNT(a) > 0 FROM Appointment a " +
+            "WHERE a.status IN :statuses " +
+            "AND a.dateHeure > :windowStart AND a.dateHeure < :end " +
+            "AND a.dateHeure + (a.dureeMinutes + :pauseMinutes) minute > :start")
+    boolean existsOverlapping(
+            @Param("statuses") Collection<Appointment.Status> statuses,
+            @Param("windowStart") LocalDateTime windowStart,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("pauseMinutes") int pauseMinutes
+    );
+
+    // Chargement du calendrier des disponibilités : seulement les colonnes utiles
+    @Query("SELECT new com.sararahmani.site.backend.dto.AppointmentSlot(a.id, a.dateHeure, a.dureeMinutes) " +
+            "FROM Appointment a WHERE a.status IN :statuses AND a.dateHeure >= :from")
+    List<AppointmentSlot> findSlotsFrom(
+            @Param("statuses") Collection<Appointment.Status> statuses,
+            @Param("from") LocalDateTime from
+    );
+
+    // Admin : pagination par clé (seek) sur (dateHeure, id), filtres optionnels (null = ignoré).
+    // Le curseur est le dernier (dateHeure, id) de la page précédente : pas d'OFFSET à parcourir.
+    @Query(RESPONSE_SELECT +
+            "WHERE (:status IS NULL OR a.status = :status) " +
+            "AND (:patientId IS NULL OR p.id = :patientId) " +
+            "AND (:from IS NULL OR a.dateHeure >= :from) " +
+            "AND (:to IS NULL OR a.dateHeure < :to) " +
+            "AND (:cursorDate IS NULL OR a.dateHeure < :cursorDate " +
+            "     OR (a.dateHeure = :cursorDate AND a.id < :cursorId)) " +
+            "ORDER BY a.dateHeure DESC, a.id DESC")
+    List<AppointmentResponse> findPage(
+            @Param("status") Appointment.Status status,
+            @Param("patientId") Long patientId,
             @Param("from") LocalDateTime from,
-            @Param("to") LocalDateTime to
+            @Param("to") LocalDateTime to,
+            @Param("cursorDate") LocalDateTime cursorDate,
+            @Param("cursorId") Long cursorId,
+            Limit limit
     );
 
-    // Admin : tous les RDV (Spring Data JPA auto)
-    List<Appointment> findAllByOrderByDateHeureDesc();
+    // Admin : export complet lu en flux (curseur JDBC), à consommer dans une transaction
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_SELECT +
+            "WHERE (:status IS NULL OR a.status = :status) " +
+            "AND (:patientId IS NULL OR p.id = :patientId) " +
+            "AND (:from IS NULL OR a.dateHeure >= :from) " +
+            "AND (:to IS NULL OR a.dateHeure < :to) " +
+            "ORDER BY a.dateHeure DESC, a.id DESC")
+    Stream<AppointmentResponse> streamFiltered(
+            @Param("status") Appointment.Status status,
+            @Param("patientId") Long patientId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
 
     // RDV dans les 48h pour patient ✅ CORRIGÉ
     @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId AND a.dateHeure > :now AND a.dateHeure < :nowPlus48h")
@@ -0,0 +1,61 @@
+package com.sararahmani.site.backend.repository;
+
+import com.sararahmani.site.backend.entity.OutboxMessage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    // Lot de messages à relayer ; SKIP LOCKED (timeout -2) pour que plusieurs instances
+    // ne prennent jamais les mêmes lignes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM OutboxMessage o WHERE o.status = 'PENDING' AND o.nextAttemptAt <= :now ORDER BY o.id")
+    List<OutboxMessage> findBatchToRelay(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMessage o SET o.status = 'SENT', o.sentAt = :now, o.nextAttemptAt = :now, o.payload = null, "
+            + "o.lastError = null WHERE o.id = :id")
+    int markSent(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMessage o SET o.status = :status, o.nextAttemptAt = :nextAttemptAt, o.lastError = :error WHERE o.id = :id")
+    int markFailed(
+            @Param("id") Long id,
+            @Param("status") OutboxMessage.Status status,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("error") String error
+    );
+
+    // Abandon définitif : le token n'est plus envoyé, il ne reste pas en base
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMessage o SET o.status = 'FAILED', o.nextAttemptAt = :now, o.payload = null, "
+            + "o.lastError = :error WHERE o.id = :id")
+    int markAbandoned(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("error") String error);
+
+    // Messages terminés (SENT ou FAILED) depuis avant cutoff : next_attempt_at date l'envoi ou l'abandon,
+    // la suppression suit l'index (status, next_attempt_at). DELETE ... LIMIT natif, un lot par transaction
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "outbox"))
+    @Query(value = "DELETE FROM outbox WHERE status IN ('SENT', 'FAILED') AND next_attempt_at < :cutoff LIMIT :limit",
+            nativeQuery = true)
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    long countByStatus(OutboxMessage.Status status);
+}
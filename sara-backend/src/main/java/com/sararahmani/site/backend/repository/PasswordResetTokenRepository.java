@@ -1,11 +1,27 @@
 package com.sararahmani.site.backend.repository;
 
 import com.sararahmani.site.backend.entity.PasswordResetToken;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
 
-    Optional<PasswordResetToken> findByToken(String token);
-}
\ No newline at end of file
+    Optional<PasswordResetToken> findByTokenHash(byte[] tokenHash);
+
+    // DELETE ... LIMIT natif : un lot borné par transaction, sans charger les entités.
+    // Espace de requête explicite : sinon Hibernate vide toutes les régions du cache de second niveau
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "password_reset_tokens"))
+    @Query(value = "DELETE FROM password_reset_tokens WHERE expires_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
@@ -1,14 +1,27 @@
 package com.sararahmani.site.backend.repository;
 
+import com.sararahmani.site.backend.dto.PatientDto;
 import com.sararahmani.site.backend.entity.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface PatientRepository extends JpaRepository<Patient, Long> {
+public interface PatientRepository extends JpaRepository<Patient, Long>, PatientSearchRepository {
 
     Optional<Patient> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    // Import en masse : emails d'un lot déjà présents, en une requête
+    @Query("SELECT p.email FROM Patient p WHERE p.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Chargement de l'index de recherche : projection, sans hydrater d'entités
+    @Query("SELECT new com.sararahmani.site.backend.dto.PatientDto(p.id, p.nom, p.prenom, p.email, p.telephone) FROM Patient p")
+    List<PatientDto> findAllForSearch();
 }
 
@@ -0,0 +1,16 @@
+package com.sararahmani.site.backend.repository;
+
+import com.sararahmani.site.backend.dto.PatientDto;
+import com.sararahmani.site.backend.dto.PatientSort;
+
+import java.util.List;
+
+// Liste des patients : recherche par préfixe sur nom, prenom ou email, pagination par clé (seek)
+// sur (colonne de tri, id). Requête construite selon le tri, chaque tri suit son propre index.
+public interface PatientSearchRepository {
+
+    // prefix null = pas de filtre ; afterValue/afterId null = première page
+    List<PatientDto> findPage(String prefix, PatientSort sort, String afterValue, Long afterId, int limit);
+
+    long countMatching(String prefix);
+}
@@ -0,0 +1,87 @@
+package com.sararahmani.site.backend.repository;
+
+import com.sararahmani.site.backend.dto.PatientDto;
+import com.sararahmani.site.backend.dto.PatientSort;
+import com.sararahmani.site.backend.entity.Patient;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class PatientSearchRepositoryImpl implements PatientSearchRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PatientDto> findPage(String prefix, PatientSort sort, String afterValue, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PatientDto> query = cb.createQuery(PatientDto.class);
+        Root<Patient> patient = query.from(Patient.class);
+        Path<String> sortKey = patient.get(sort.attribute());
+        Path<Long> id = patient.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        if (prefix != null) {
+            where.add(matches(cb, patient, prefix));
+        }
+        if (afterId != null) {
+            where.add(cb.or(
+                    cb.greaterThan(sortKey, afterValue),
+                    cb.and(cb.equal(sortKey, afterValue), cb.greaterThan(id, afterId))
+            ));
+        }
+
+        // Projection DTO : pas d'entités attachées ni de passage par le cache de second niveau
+        query.select(cb.construct(PatientDto.class,
+                        id, patient.get("nom"), patient.get("prenom"), patient.get("email"), patient.get("telephone")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(sortKey), cb.asc(id));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long countMatching(String prefix) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Patient> patient = query.from(Patient.class);
+        query.select(cb.count(patient));
+        if (prefix != null) {
+            query.where(matches(cb, patient, prefix));
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // LIKE 'préfixe%' sans fonction sur la colonne : chaque branche du OR reste un parcours d'index.
+    // Casse : celle de la collation (insensible sous MariaDB utf8mb4_*_ci)
+    private static Predicate matches(CriteriaBuilder cb, Root<Patient> patient, String prefix) {
+        String pattern = escapeLike(prefix) + "%";
+        return cb.or(
+                cb.like(patient.get("nom"), pattern, LIKE_ESCAPE),
+                cb.like(patient.get("prenom"), pattern, LIKE_ESCAPE),
+                cb.like(patient.get("email"), pattern, LIKE_ESCAPE)
+        );
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
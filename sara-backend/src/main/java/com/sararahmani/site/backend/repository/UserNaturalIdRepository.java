@@ -0,0 +1,17 @@
+package com.sararahmani.site.backend.repository;
+
+import com.sararahmani.site.backend.entity.User;
+
+import java.util.Optional;
+
+// Recherche par email via l'identifiant naturel Hibernate : servie par le cache de second niveau
+// (email -> id, puis id -> User) sans requête, contrairement à une requête dérivée findByEmail.
+// L'email est normalisé (User.normalizeEmail) avant la recherche
+public interface UserNaturalIdRepository {
+
+    Optional<User> findByEmail(String email);
+
+    // Lecture en base, sans consulter le cache de second niveau : hash du mot de passe et tokenVersion
+    // à jour même s'ils viennent d'être modifiés par une autre instance (login, réinitialisation)
+    Optional<User> findByEmailUncached(String email);
+}
@@ -0,0 +1,37 @@
+package com.sararahmani.site.backend.repository;
+
+import com.sararahmani.site.backend.entity.User;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Transaction requise : hors transaction, la Session obtenue par unwrap est fermée aussitôt
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(User.normalizeEmail(email));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmailUncached(String email) {
+        return entityManager.createQuery("SELECT u FROM User u WHERE u.email = :email", User.class)
+                .setParameter("email", User.normalizeEmail(email))
+                .setHint(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+}
@@ -1,14 +1,23 @@
 package com.sararahmani.site.backend.repository;
 
+import com.sararahmani.site.backend.dto.UserAuthState;
 import com.sararahmani.site.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-
-    Optional<User> findByEmail(String email);
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
 
     boolean existsByEmail(String email);
+
+    List<User> findByEmailIn(Collection<String> emails);
+
+    // Projection légère pour la validation des JWT (pas d'hydratation de l'entité)
+    @Query("SELECT new com.sararahmani.site.backend.dto.UserAuthState(u.tokenVersion, u.enabled) FROM User u WHERE u.id = :id")
+    Optional<UserAuthState> findAuthStateById(@Param("id") Long id);
 }
 
@@ -0,0 +1,60 @@
+package com.sararahmani.site.backend.service;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// BCrypt dont le coût est choisi au démarrage : tout hash d'un autre coût (plus faible
+// ou plus fort) est signalé à réencoder, Spring Security le remplace au login suivant
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private final int strength;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.find()) {
+            throw new IllegalArgumentException("Hash BCrypt invalide");
+        }
+        return Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    // Plus petit coût dans [min, max] dont le hash atteint targetMs : on mesure au coût minimal
+    // puis on double (chaque +1 double le temps) plutôt que de hasher à chaque coût
+    public static int calibrate(long targetMs, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        // Premier hash pour le JIT, puis meilleure de deux mesures
+        encoder.encode(CALIBRATION_PASSWORD);
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        long estimatedNanos = bestNanos;
+        long targetNanos = targetMs * 1_000_000;
+        while (strength < maxStrength && estimatedNanos < targetNanos) {
+            strength++;
+            estimatedNanos *= 2;
+        }
+        return strength;
+    }
+}
@@ -0,0 +1,31 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Position dans la liste triée par (dateHeure desc, id desc) : dernier élément de la page précédente.
+// Encodé en base64 URL pour rester opaque côté client.
+record AppointmentCursor(LocalDateTime dateHeure, Long id) {
+
+    String encode() {
+        String raw = dateHeure + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static AppointmentCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new AppointmentCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Curseur de pagination invalide");
+        }
+    }
+}
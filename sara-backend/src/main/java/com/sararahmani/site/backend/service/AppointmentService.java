@@ -1,7 +1,11 @@
 package com.sararahmani.site.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sararahmani.site.backend.config.MetricsConfig;
+import com.sararahmani.site.backend.dto.AppointmentFilter;
 import com.sararahmani.site.backend.dto.AppointmentRequest;
 import com.sararahmani.site.backend.dto.AppointmentResponse;
+import com.sararahmani.site.backend.dto.CursorPage;
 import com.sararahmani.site.backend.entity.Appointment;
 import com.sararahmani.site.backend.entity.User;
 import com.sararahmani.site.backend.exception.AccessDeniedException;
@@ -9,48 +13,71 @@ import com.sararahmani.site.backend.exception.ConflictException;
 import com.sararahmani.site.backend.exception.EntityNotFoundException;
 import com.sararahmani.site.backend.repository.AppointmentRepository;
 import com.sararahmani.site.backend.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @RequiredArgsConstructor
 @Transactional
 public class AppointmentService {
 
     private final AppointmentRepository appointmentRepository;
     private final UserRepository userRepository;
-    private static final int ANNULATION_MINUTES = 48 * 60;
+    private final AppointmentSlotLockService slotLockService;
+    private final ObjectMapper objectMapper;
+    // Battement entre deux séances (50 min + 10 min = un RDV par heure)
+    static final int PAUSE_MINUTES = 10;
+    // Durée maximale d'une séance : borne basse de la recherche de chevauchement
+    static final int DUREE_MAX_MINUTES = 4 * 60;
+    static final List<Appointment.Status> STATUTS_BLOQUANTS =
+            List.of(Appointment.Status.PLANNED, Appointment.Status.CONFIRMED);
+    static final int PAGE_SIZE_MAX = 200;
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
 
     // Patient : créer RDV
+    // READ_COMMITTED : une fois le verrou du jour obtenu, la recherche de chevauchement
+    // doit voir les RDV validés entre-temps par la transaction qui le détenait
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public AppointmentResponse createAppointment(Long patientId, AppointmentRequest request) {
+        Appointment appointment = Appointment.builder()
+                .dateHeure(request.dateHeure())
+                .motif(request.motif())
+                .build();
+
+        LocalDateTime start = appointment.getDateHeure();
+        LocalDateTime end = start.plusMinutes(appointment.getDureeMinutes() + PAUSE_MINUTES);
+
         User patient = userRepository.findById(patientId)
                 .orElseThrow(() -> new EntityNotFoundException("Patient non trouvé"));
+        appointment.setPatient(patient);
 
-        if (isSlotTaken(request.dateHeure())) {
+        // La base décide seule, sous le verrou du jour : le calendrier en mémoire peut être en retard
+        // (écritures d'une autre instance, import) et ne sert qu'à l'affichage des disponibilités
+        if (isSlotTaken(start, end)) {
             throw new ConflictException("Ce créneau est déjà pris");
         }
 
-        Appointment appointment = Appointment.builder()
-                .dateHeure(request.dateHeure())
-                .motif(request.motif())
-                .patient(patient)
-                .build();
-
         appointmentRepository.save(appointment);
         return mapToResponse(appointment);
     }
 
     // Patient : mes RDV
+    @Transactional(readOnly = true)
     public List<AppointmentResponse> getMyAppointments(Long patientId) {
-        return appointmentRepository.findByPatientIdOrderByDateHeureDesc(patientId)
-                .stream()
-                .map(this::mapToResponse)
-                .toList();
+        return appointmentRepository.findResponsesByPatientId(patientId);
     }
 
     // Patient : annuler
@@ -67,7 +94,7 @@ public class AppointmentService {
                 appointment.getDateHeure()
         );
 
-        if (minutesBefore < ANNULATION_MINUTES) {
+        if (minutesBefore < Appointment.DELAI_ANNULATION_MINUTES) {
             throw new ConflictException("Annulation possible seulement 48h avant le RDV");
         }
 
@@ -76,37 +103,78 @@ public class AppointmentService {
         appointmentRepository.save(appointment);
     }
 
-    // Admin
-    public List<AppointmentResponse> getAllAppointments() {
-        return appointmentRepository.findAllByOrderByDateHeureDesc()
-                .stream()
-                .map(this::mapToResponse)
-                .toList();
+    // Admin : liste paginée par curseur, du plus récent au plus ancien
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentResponse> getAllAppointments(AppointmentFilter filter, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, PAGE_SIZE_MAX));
+        AppointmentCursor after = cursor == null || cursor.isBlank() ? null : AppointmentCursor.decode(cursor);
+
+        // Une ligne de plus que demandé pour savoir s'il existe une page suivante
+        List<AppointmentResponse> rows = appointmentRepository.findPage(
+                filter.status(),
+                filter.patientId(),
+                filter.from(),
+                filter.to(),
+                after == null ? null : after.dateHeure(),
+                after == null ? null : after.id(),
+                Limit.of(pageSize + 1)
+        );
+
+        boolean hasNext = rows.size() > pageSize;
+        List<AppointmentResponse> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            AppointmentResponse last = page.get(page.size() - 1);
+            nextCursor = new AppointmentCursor(last.dateHeure(), last.id()).encode();
+        }
+
+        return new CursorPage<>(List.copyOf(page), nextCursor);
+    }
+
+    // Admin : export NDJSON (un RDV par ligne) lu en flux depuis la base
+    @Transactional(readOnly = true)
+    public void exportAppointments(AppointmentFilter filter, OutputStream out) throws IOException {
+        // Projection DTO : rien n'est attaché au contexte de persistance, la mémoire reste constante
+        try (Stream<AppointmentResponse> rows = appointmentRepository.streamFiltered(
+                filter.status(), filter.patientId(), filter.from(), filter.to())) {
+            Iterator<AppointmentResponse> iterator = rows.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                if (++count % EXPORT_FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
     }
 
     public void deleteAppointment(Long appointmentId) {
         appointmentRepository.deleteById(appointmentId);
     }
 
-    private boolean isSlotTaken(LocalDateTime slot) {
-        return appointmentRepository.findAvailableSlots(slot.minusMinutes(55), slot.plusMinutes(55))
-                .stream()
-                .anyMatch(a -> Math.abs(ChronoUnit.MINUTES.between(a.getDateHeure(), slot)) < 60);
+    private boolean isSlotTaken(LocalDateTime start, LocalDateTime end) {
+        // Sérialise les réservations concurrentes sur les mêmes jours jusqu'au commit
+        slotLockService.lockDays(start, end);
+
+        return appointmentRepository.existsOverlapping(
+                STATUTS_BLOQUANTS,
+                start.minusMinutes(DUREE_MAX_MINUTES + PAUSE_MINUTES),
+                start,
+                end,
+                PAUSE_MINUTES
+        );
     }
 
     private AppointmentResponse mapToResponse(Appointment a) {
-        boolean canPatientCancel = ChronoUnit.MINUTES.between(
-                LocalDateTime.now(), a.getDateHeure()
-        ) > ANNULATION_MINUTES && a.getStatus() == Appointment.Status.PLANNED;
-
         return new AppointmentResponse(
                 a.getId(),
                 a.getDateHeure(),
                 a.getMotif(),
                 a.getPatient().getNom(),
                 a.getPatient().getPrenom(),
-                a.getStatus().name(),
-                canPatientCancel
+                a.getStatus()
         );
     }
 }
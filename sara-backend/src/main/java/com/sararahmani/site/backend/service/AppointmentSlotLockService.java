@@ -0,0 +1,34 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.repository.AppointmentDayLockRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Réservation de créneau : verrou pessimiste par jour, tenu jusqu'au commit de la transaction appelante
+@Service
+public class AppointmentSlotLockService {
+
+    private final AppointmentDayLockRepository repository;
+
+    public AppointmentSlotLockService(AppointmentDayLockRepository repository) {
+        this.repository = repository;
+    }
+
+    // Verrouille tous les jours touchés par [start, end] : deux RDV qui se chevauchent
+    // ont toujours au moins un jour en commun, donc un verrou en commun. Les jours sont
+    // pris dans l'ordre chronologique pour éviter les interblocages.
+    // Tout passe par la connexion de la transaction appelante : la ligne du jour est créée si besoin
+    // (INSERT ... ON DUPLICATE KEY UPDATE) puis verrouillée (SELECT ... FOR UPDATE) alors qu'elle existe,
+    // donc sans verrou de trou (gap lock) et sans seconde connexion prise au pool
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockDays(LocalDateTime start, LocalDateTime end) {
+        for (LocalDate jour = start.toLocalDate(); !jour.isAfter(end.toLocalDate()); jour = jour.plusDays(1)) {
+            repository.createIfAbsent(jour);
+            repository.lockDay(jour).orElseThrow();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.sararahmani.site.backend.service;
 
+import com.sararahmani.site.backend.config.MetricsConfig;
 import com.sararahmani.site.backend.dto.AuthRequest;
 import com.sararahmani.site.backend.dto.AuthResponse;
 import com.sararahmani.site.backend.dto.RegisterRequest;
@@ -11,17 +12,20 @@ import com.sararahmani.site.backend.repository.EmailConfirmationRepository;
 import com.sararahmani.site.backend.repository.PasswordResetTokenRepository;
 import com.sararahmani.site.backend.repository.UserRepository;
 import com.sararahmani.site.backend.service.mapper.UserMapper;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @AllArgsConstructor
 public class AuthService {
 
@@ -30,15 +34,17 @@ public class AuthService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final UserMapper userMapper;
-    private final MailService mailService;
+    private final OutboxService outboxService;
     private final EmailConfirmationRepository emailConfirmationRepository;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final TokenGenerator tokenGenerator;
 
 
+    @Transactional
     public AuthResponse register(RegisterRequest request) {
 
         // 1. Vérifier si email existe déjà
-        if (userRepository.existsByEmail(request.email())) {
+        if (userRepository.existsByEmail(User.normalizeEmail(request.email()))) {
             throw new EmailAlreadyExistsException("Cette adresse email est déjà utilisée.");
         }
 
@@ -49,27 +55,24 @@ public class AuthService {
         userRepository.save(user);
 
         // Générer et sauvegarder le token de confirmation
-        String confirmationToken = UUID.randomUUID().toString();
+        String confirmationToken = tokenGenerator.generate();
         EmailConfirmation emailConfirmation = EmailConfirmation.builder()
-                .token(confirmationToken)
+                .tokenHash(TokenHasher.hash(confirmationToken))
                 .email(user.getEmail())
                 .expiresAt(LocalDateTime.now().plusHours(24))
                 .build();
         emailConfirmationRepository.save(emailConfirmation);
 
-        // Envoyer l'email de confirmation
-        mailService.sendConfirmationEmail(user.getEmail(), confirmationToken);
+        // L'email de confirmation part via l'outbox, dans la même transaction
+        outboxService.enqueueConfirmationEmail(user.getEmail(), confirmationToken);
 
-        String token = jwtService.generateToken(
-                user.getEmail(),
-                Map.of("role", user.getRole().name())
-        );
+        String token = generateToken(user);
 
         return userMapper.toAuthResponse(user, token);
     }
 
     public String confirmEmail(String token) {
-        EmailConfirmation confirmation = emailConfirmationRepository.findByToken(token)
+        EmailConfirmation confirmation = emailConfirmationRepository.findByTokenHash(TokenHasher.hash(token))
                 .orElseThrow(() -> new IllegalArgumentException("Token invalide"));
 
         if (confirmation.isUsed()) {
@@ -100,17 +103,16 @@ public class AuthService {
                 )
         );
 
-        User user = userRepository.findByEmail(request.email())
+        // Lu en base : le JWT embarque le tokenVersion courant, pas celui du cache
+        User user = userRepository.findByEmailUncached(request.email())
                 .orElseThrow();
 
-        String token = jwtService.generateToken(
-                user.getEmail(),
-                Map.of("role", user.getRole().name())
-        );
+        String token = generateToken(user);
 
         return userMapper.toAuthResponse(user, token);
     }
 
+    @Transactional
     public String forgotPassword(String email) {
         User user = userRepository.findByEmail(email).orElse(null);
 
@@ -120,21 +122,21 @@ public class AuthService {
             return "Si cette adresse email existe, un lien de réinitialisation vous a été envoyé.";
         }
 
-        String resetToken = UUID.randomUUID().toString();
+        String resetToken = tokenGenerator.generate();
         PasswordResetToken passwordResetToken = PasswordResetToken.builder()
-                .token(resetToken)
-                .email(email)
+                .tokenHash(TokenHasher.hash(resetToken))
+                .email(user.getEmail())
                 .expiresAt(LocalDateTime.now().plusHours(1))
                 .build();
         passwordResetTokenRepository.save(passwordResetToken);
 
-        mailService.sendPasswordResetEmail(email, resetToken);
+        outboxService.enqueuePasswordResetEmail(user.getEmail(), resetToken);
 
         return "Si cette adresse email existe, un lien de réinitialisation vous a été envoyé.";
     }
 
     public String resetPassword(String token, String newPassword) {
-        PasswordResetToken resetToken = passwordResetTokenRepository.findByToken(token)
+        PasswordResetToken resetToken = passwordResetTokenRepository.findByTokenHash(TokenHasher.hash(token))
                 .orElseThrow(() -> new IllegalArgumentException("Token invalide"));
 
         if (resetToken.isUsed()) {
@@ -145,10 +147,13 @@ public class AuthService {
             throw new IllegalArgumentException("Ce lien a expiré.");
         }
 
-        User user = userRepository.findByEmail(resetToken.getEmail())
+        // Lu en base : l'incrément part du tokenVersion courant, pas d'une copie en cache
+        User user = userRepository.findByEmailUncached(resetToken.getEmail())
                 .orElseThrow(() -> new IllegalArgumentException("Utilisateur non trouvé"));
 
         user.setPassword(passwordEncoder.encode(newPassword));
+        // Révoque les JWT émis avant le changement de mot de passe
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
 
         resetToken.setUsed(true);
@@ -156,4 +161,16 @@ public class AuthService {
 
         return "Votre mot de passe a été réinitialisé avec succès !";
     }
+
+    // Claims embarqués pour que le filtre JWT construise le principal sans requête
+    private String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtService.CLAIM_ROLE, user.getRole().name());
+        if (user.getId() != null) {
+            claims.put(JwtService.CLAIM_USER_ID, user.getId());
+        }
+        claims.put(JwtService.CLAIM_TOKEN_VERSION, user.getTokenVersion());
+
+        return jwtService.generateToken(user.getEmail(), claims);
+    }
 }
@@ -0,0 +1,240 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.dto.AppointmentSlot;
+import com.sararahmani.site.backend.dto.DayAvailability;
+import com.sararahmani.site.backend.entity.Appointment;
+import com.sararahmani.site.backend.exception.BadRequestException;
+import com.sararahmani.site.backend.repository.AppointmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Calendrier des créneaux occupés, en mémoire : un bitset de tranches de 10 minutes par jour.
+// Construit depuis la base au démarrage, tenu à jour après chaque commit (AvailabilityCalendarListener)
+// et reconstruit périodiquement pour rattraper les écritures faites par d'autres instances.
+@Slf4j
+@Service
+public class AvailabilityCalendar {
+
+    private static final int BUCKET_SECONDS = 10 * 60;
+    private static final int BUCKETS_PER_DAY = 24 * 60 * 60 / BUCKET_SECONDS;
+
+    private final AppointmentRepository appointmentRepository;
+    private final List<LocalTime> slotTimes;
+    private final int maxRangeDays;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Interval> intervals = new HashMap<>();
+    private Map<LocalDate, Day> days = new HashMap<>();
+    // Non null pendant une reconstruction : mises à jour à rejouer sur le nouvel état
+    private List<Runnable> pendingDuringRebuild;
+
+    public AvailabilityCalendar(
+            AppointmentRepository appointmentRepository,
+            @Value("${appointments.slot-times:09:00,10:00,11:00,14:00,15:00,16:00,17:00}") String[] slotTimes,
+            @Value("${appointments.availability.max-range-days:62}") int maxRangeDays
+    ) {
+        this.appointmentRepository = appointmentRepository;
+        this.slotTimes = Arrays.stream(slotTimes).map(String::trim).map(LocalTime::parse).sorted().toList();
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${appointments.calendar.refresh-ms:300000}",
+            fixedDelayString = "${appointments.calendar.refresh-ms:300000}"
+    )
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, Interval> newIntervals = new HashMap<>();
+        Map<LocalDate, Day> newDays = new HashMap<>();
+        boolean loaded = false;
+        try {
+            // Les jours passés ne sont pas rechargés : la reconstruction sert aussi de purge
+            LocalDateTime from = LocalDate.now().atStartOfDay()
+                    .minusMinutes(AppointmentService.DUREE_MAX_MINUTES + AppointmentService.PAUSE_MINUTES);
+            for (AppointmentSlot slot : appointmentRepository.findSlotsFrom(AppointmentService.STATUTS_BLOQUANTS, from)) {
+                add(newIntervals, newDays, Interval.of(slot.id(), slot.dateHeure(), slot.dureeMinutes()));
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    intervals = newIntervals;
+                    days = newDays;
+                    pendingDuringRebuild.forEach(Runnable::run);
+                }
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.debug("Calendrier des disponibilités reconstruit : {} RDV sur {} jours", newIntervals.size(), newDays.size());
+    }
+
+    public void put(Long id, LocalDateTime dateHeure, int dureeMinutes) {
+        update(() -> {
+            remove(intervals, days, id);
+            add(intervals, days, Interval.of(id, dateHeure, dureeMinutes));
+        });
+    }
+
+    public void remove(Long id) {
+        update(() -> remove(intervals, days, id));
+    }
+
+    // Créneaux libres (horaires configurés, durée par défaut) entre from et to inclus
+    public List<DayAvailability> availability(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("Période invalide : to doit être postérieur ou égal à from");
+        }
+        LocalDate last = to.isAfter(from.plusDays(maxRangeDays - 1L)) ? from.plusDays(maxRangeDays - 1L) : to;
+        LocalDateTime now = LocalDateTime.now();
+        int slotMinutes = Appointment.DUREE_PAR_DEFAUT_MINUTES + AppointmentService.PAUSE_MINUTES;
+
+        List<DayAvailability> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (LocalDate date = from; !date.isAfter(last); date = date.plusDays(1)) {
+                List<LocalTime> free = new ArrayList<>();
+                for (LocalTime time : slotTimes) {
+                    LocalDateTime start = date.atTime(time);
+                    if (start.isAfter(now) && !overlaps(start, start.plusMinutes(slotMinutes))) {
+                        free.add(time);
+                    }
+                }
+                result.add(new DayAvailability(date, free));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private void update(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Le bitset écarte vite les jours libres ; s'il signale une tranche occupée,
+    // on confirme sur les intervalles exacts (les tranches arrondissent vers l'extérieur)
+    private boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        for (LocalDate date : dates(start, end)) {
+            Day day = days.get(date);
+            if (day == null) {
+                continue;
+            }
+            int fromBucket = firstBucket(date, start);
+            int toBucket = endBucket(date, end);
+            int firstSet = day.buckets.nextSetBit(fromBucket);
+            if (firstSet < 0 || firstSet >= toBucket) {
+                continue;
+            }
+            for (Long id : day.ids) {
+                Interval interval = intervals.get(id);
+                if (interval.start.isBefore(end) && interval.end.isAfter(start)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void add(Map<Long, Interval> intervals, Map<LocalDate, Day> days, Interval interval) {
+        intervals.put(interval.id, interval);
+        for (LocalDate date : dates(interval.start, interval.end)) {
+            Day day = days.computeIfAbsent(date, d -> new Day());
+            day.ids.add(interval.id);
+            day.buckets.set(firstBucket(date, interval.start), endBucket(date, interval.end));
+        }
+    }
+
+    private static void remove(Map<Long, Interval> intervals, Map<LocalDate, Day> days, Long id) {
+        Interval removed = intervals.remove(id);
+        if (removed == null) {
+            return;
+        }
+        for (LocalDate date : dates(removed.start, removed.end)) {
+            Day day = days.get(date);
+            day.ids.remove(id);
+            if (day.ids.isEmpty()) {
+                days.remove(date);
+                continue;
+            }
+            // Les tranches peuvent être partagées : on recalcule le bitset du jour
+            day.buckets.clear();
+            for (Long other : day.ids) {
+                Interval interval = intervals.get(other);
+                day.buckets.set(firstBucket(date, interval.start), endBucket(date, interval.end));
+            }
+        }
+    }
+
+    // Jours touchés par [start, end) (un RDV peut déborder après minuit)
+    private static List<LocalDate> dates(LocalDateTime start, LocalDateTime end) {
+        LocalDate last = end.minusNanos(1).toLocalDate();
+        List<LocalDate> dates = new ArrayList<>();
+        dates.add(start.toLocalDate());
+        for (LocalDate date = start.toLocalDate().plusDays(1); !date.isAfter(last); date = date.plusDays(1)) {
+            dates.add(date);
+        }
+        return dates;
+    }
+
+    private static int firstBucket(LocalDate date, LocalDateTime start) {
+        if (start.toLocalDate().isBefore(date)) {
+            return 0;
+        }
+        return start.toLocalTime().toSecondOfDay() / BUCKET_SECONDS;
+    }
+
+    private static int endBucket(LocalDate date, LocalDateTime end) {
+        if (end.toLocalDate().isAfter(date)) {
+            return BUCKETS_PER_DAY;
+        }
+        return (end.toLocalTime().toSecondOfDay() + BUCKET_SECONDS - 1) / BUCKET_SECONDS;
+    }
+
+    private static final class Day {
+        private final BitSet buckets = new BitSet(BUCKETS_PER_DAY);
+        private final Set<Long> ids = new HashSet<>();
+    }
+
+    // Intervalle occupé [start, end) : durée de la séance + pause
+    private record Interval(Long id, LocalDateTime start, LocalDateTime end) {
+
+        static Interval of(Long id, LocalDateTime dateHeure, int dureeMinutes) {
+            return new Interval(id, dateHeure, dateHeure.plusMinutes(dureeMinutes + AppointmentService.PAUSE_MINUTES));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.entity.Appointment;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+// Listener JPA : création, annulation ou suppression d'un RDV mettent à jour le calendrier
+// des disponibilités, seulement après le commit (un rollback ne doit rien changer)
+@Component
+public class AvailabilityCalendarListener {
+
+    // Résolu à la demande : le listener est créé pendant le démarrage de Hibernate,
+    // avant le repository dont dépend le calendrier
+    private final ObjectProvider<AvailabilityCalendar> calendar;
+
+    public AvailabilityCalendarListener(ObjectProvider<AvailabilityCalendar> calendar) {
+        this.calendar = calendar;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Appointment appointment) {
+        Long id = appointment.getId();
+        if (AppointmentService.STATUTS_BLOQUANTS.contains(appointment.getStatus())) {
+            LocalDateTime dateHeure = appointment.getDateHeure();
+            int dureeMinutes = appointment.getDureeMinutes();
+            afterCommit(() -> calendar.getObject().put(id, dateHeure, dureeMinutes));
+        } else {
+            afterCommit(() -> calendar.getObject().remove(id));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Appointment appointment) {
+        Long id = appointment.getId();
+        afterCommit(() -> calendar.getObject().remove(id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
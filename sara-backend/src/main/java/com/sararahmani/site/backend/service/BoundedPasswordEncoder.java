@@ -0,0 +1,162 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Bulkhead autour des hash (BCrypt) : au plus `permits` opérations en cours ou en attente,
+// exécutées sur un pool dédié de `threads` threads. Une rafale de logins occupe au plus
+// `threads` coeurs ; au-delà des permis, on attend au plus acquireTimeoutMs puis on refuse (503)
+// au lieu de bloquer tous les threads Tomcat. Une fois le permis obtenu, l'attente du résultat est elle
+// aussi bornée (executionTimeoutMs, file du pool + hash) : au-delà, 503 également
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final String SATURATED_MESSAGE =
+            "Service momentanément surchargé, veuillez réessayer dans quelques instants.";
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore permits;
+    private final int permitCount;
+    private final long acquireTimeoutMs;
+    private final long executionTimeoutMs;
+
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+    private final Counter timeoutCounter;
+
+    public BoundedPasswordEncoder(
+            PasswordEncoder delegate,
+            int threads,
+            int permitCount,
+            long acquireTimeoutMs,
+            long executionTimeoutMs,
+            MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        // File non bornée : les permis limitent déjà le nombre de tâches soumises
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                namedThreads("password-hash-")
+        );
+        this.permits = new Semaphore(permitCount, true);
+        this.permitCount = permitCount;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.executionTimeoutMs = executionTimeoutMs;
+
+        Gauge.builder("password.hashing.in-flight", this, BoundedPasswordEncoder::inFlight)
+                .description("Hash en cours ou en file sur le pool dédié")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue", this, BoundedPasswordEncoder::queuedTasks)
+                .description("Hash en attente d'un thread du pool")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.saturation", this, e -> (double) e.inFlight() / e.permitCount)
+                .description("Part des permis utilisés (1 = saturé)")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("password.hashing.wait")
+                .description("Attente d'un permis avant hash")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Hash refusés faute de permis dans le délai")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("password.hashing.timeout")
+                .description("Hash abandonnés faute de résultat dans le délai")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Simple lecture du préfixe/coût : pas besoin du pool
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int inFlight() {
+        return permitCount - permits.availablePermits();
+    }
+
+    public int queuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> task) {
+        acquire();
+        try {
+            Future<T> future = executor.submit(task);
+            try {
+                return future.get(executionTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Encore en file : retiré du pool. Déjà en cours : BCrypt va au bout, le thread reste
+                // compté dans la taille fixe du pool, qui borne toujours le CPU
+                future.cancel(true);
+                timeoutCounter.increment();
+                throw new ServiceUnavailableException(SATURATED_MESSAGE, RETRY_AFTER_SECONDS);
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new ServiceUnavailableException(SATURATED_MESSAGE, RETRY_AFTER_SECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException(SATURATED_MESSAGE, RETRY_AFTER_SECONDS);
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,229 @@
+package com.sararahmani.site.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.sararahmani.site.backend.config.MetricsConfig;
+import com.sararahmani.site.backend.dto.BulkImportResult;
+import com.sararahmani.site.backend.entity.Appointment;
+import com.sararahmani.site.backend.entity.Patient;
+import com.sararahmani.site.backend.entity.User;
+import com.sararahmani.site.backend.exception.BadRequestException;
+import com.sararahmani.site.backend.repository.AppointmentRepository;
+import com.sararahmani.site.backend.repository.PatientRepository;
+import com.sararahmani.site.backend.repository.UserRepository;
+import com.sararahmani.site.backend.service.ImportRecordReader.ImportRecord;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// Import en masse (reprise de données) : lecture en flux, validation et écriture par lots de chunk-size
+// enregistrements, une transaction par lot. Les INSERT d'un lot partent en batch JDBC (ids par séquence).
+// Un enregistrement invalide est rejeté et signalé sans bloquer les autres ; un fichier mal formé
+// arrête l'import, les lots précédents restent validés.
+@Slf4j
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class BulkImportService {
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BulkImportService(
+            PatientRepository patientRepository,
+            AppointmentRepository appointmentRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${imports.chunk-size:1000}") int chunkSize
+    ) {
+        this.patientRepository = patientRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    // Colonnes : nom, prenom, email, telephone
+    public BulkImportResult importPatients(ImportRecordReader reader) throws IOException {
+        return importChunks(reader, this::writePatients);
+    }
+
+    // Colonnes : patientEmail (compte existant), dateHeure (ISO), motif, dureeMinutes, status.
+    // Reprise d'historique : pas de contrôle de chevauchement, les RDV à venir entrent dans le calendrier
+    public BulkImportResult importAppointments(ImportRecordReader reader) throws IOException {
+        return importChunks(reader, this::writeAppointments);
+    }
+
+    private BulkImportResult importChunks(ImportRecordReader reader, BiConsumer<List<ImportRecord>, Report> writer)
+            throws IOException {
+        Report report = new Report();
+        try (reader) {
+            List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+            ImportRecord record;
+            while ((record = reader.next()) != null) {
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    transactionTemplate.executeWithoutResult(status -> writer.accept(chunk, report));
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> writer.accept(chunk, report));
+            }
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("JSON invalide (" + report.imported + " enregistrements déjà importés) : "
+                    + e.getOriginalMessage());
+        } catch (BadRequestException e) {
+            throw new BadRequestException(e.getMessage() + " (" + report.imported + " enregistrements déjà importés)");
+        }
+        log.info("Import terminé : {} importés, {} rejetés", report.imported, report.rejected);
+        return new BulkImportResult(report.imported, report.rejected, report.errors);
+    }
+
+    private void writePatients(List<ImportRecord> chunk, Report report) {
+        Map<String, ImportRecord> byEmail = new HashMap<>();
+        List<Patient> patients = new ArrayList<>(chunk.size());
+        for (ImportRecord record : chunk) {
+            String nom = record.get("nom");
+            String prenom = record.get("prenom");
+            String email = record.get("email");
+            if (nom == null || prenom == null || email == null) {
+                report.reject(record, "nom, prenom et email sont obligatoires");
+            } else if (email.indexOf('@') < 1) {
+                report.reject(record, "email invalide : " + email);
+            } else if (byEmail.putIfAbsent(email.toLowerCase(Locale.ROOT), record) != null) {
+                report.reject(record, "email en double dans l'import : " + email);
+            } else {
+                patients.add(Patient.builder()
+                        .nom(nom)
+                        .prenom(prenom)
+                        .email(email)
+                        .telephone(record.get("telephone"))
+                        .build());
+            }
+        }
+        if (patients.isEmpty()) {
+            return;
+        }
+
+        Set<String> existing = new HashSet<>();
+        for (String email : patientRepository.findExistingEmails(patients.stream().map(Patient::getEmail).toList())) {
+            existing.add(email.toLowerCase(Locale.ROOT));
+        }
+        List<Patient> toSave = new ArrayList<>(patients.size());
+        for (Patient patient : patients) {
+            String key = patient.getEmail().toLowerCase(Locale.ROOT);
+            if (existing.contains(key)) {
+                report.reject(byEmail.get(key), "patient déjà existant : " + patient.getEmail());
+            } else {
+                toSave.add(patient);
+            }
+        }
+        patientRepository.saveAll(toSave);
+        report.imported += toSave.size();
+    }
+
+    private void writeAppointments(List<ImportRecord> chunk, Report report) {
+        Set<String> emails = new HashSet<>();
+        for (ImportRecord record : chunk) {
+            String email = record.get("patientEmail");
+            if (email != null) {
+                emails.add(User.normalizeEmail(email));
+            }
+        }
+        // Comptes du lot en une requête
+        Map<String, User> patients = new HashMap<>();
+        if (!emails.isEmpty()) {
+            for (User user : userRepository.findByEmailIn(emails)) {
+                patients.put(user.getEmail().toLowerCase(Locale.ROOT), user);
+            }
+        }
+
+        List<Appointment> appointments = new ArrayList<>(chunk.size());
+        for (ImportRecord record : chunk) {
+            try {
+                appointments.add(toAppointment(record, patients));
+            } catch (IllegalArgumentException e) {
+                report.reject(record, e.getMessage());
+            }
+        }
+        appointmentRepository.saveAll(appointments);
+        report.imported += appointments.size();
+    }
+
+    private static Appointment toAppointment(ImportRecord record, Map<String, User> patients) {
+        String email = record.get("patientEmail");
+        String dateHeure = record.get("dateHeure");
+        String motif = record.get("motif");
+        if (email == null || dateHeure == null || motif == null) {
+            throw new IllegalArgumentException("patientEmail, dateHeure et motif sont obligatoires");
+        }
+        User patient = patients.get(User.normalizeEmail(email));
+        if (patient == null) {
+            throw new IllegalArgumentException("patient inconnu : " + email);
+        }
+        if (motif.length() > 500) {
+            throw new IllegalArgumentException("motif trop long (500 caractères maximum)");
+        }
+
+        Appointment appointment = Appointment.builder()
+                .patient(patient)
+                .dateHeure(parse("dateHeure", dateHeure, value -> LocalDateTime.parse(value.replace(' ', 'T'))))
+                .motif(motif)
+                .build();
+        String duree = record.get("dureeMinutes");
+        if (duree != null) {
+            int minutes = parse("dureeMinutes", duree, Integer::parseInt);
+            if (minutes <= 0 || minutes > AppointmentService.DUREE_MAX_MINUTES) {
+                throw new IllegalArgumentException("dureeMinutes hors limites : " + minutes);
+            }
+            appointment.setDureeMinutes(minutes);
+        }
+        String status = record.get("status");
+        if (status != null) {
+            appointment.setStatus(parse("status", status, value -> Appointment.Status.valueOf(value.toUpperCase(Locale.ROOT))));
+        }
+        return appointment;
+    }
+
+    private static <T> T parse(String field, String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException(field + " invalide : " + value);
+        }
+    }
+
+    private static final class Report {
+
+        private long imported;
+        private long rejected;
+        private final List<BulkImportResult.RejectedRecord> errors = new ArrayList<>();
+
+        void reject(ImportRecord record, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BulkImportResult.RejectedRecord(record.number(), message));
+            }
+        }
+    }
+}
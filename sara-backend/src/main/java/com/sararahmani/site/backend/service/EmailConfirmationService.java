@@ -8,19 +8,19 @@ import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @Service
 @AllArgsConstructor
 public class EmailConfirmationService {
 
     private final EmailConfirmationRepository repository;
+    private final TokenGenerator tokenGenerator;
 
     public String createTokenForUser(User user) {
-        String token = UUID.randomUUID().toString();
+        String token = tokenGenerator.generate();
 
         EmailConfirmation confirmation = new EmailConfirmation();
-        confirmation.setToken(token);
+        confirmation.setTokenHash(TokenHasher.hash(token));
         confirmation.setEmail(user.getEmail());
         confirmation.setExpiresAt(LocalDateTime.now().plusDays(1));
 
@@ -29,7 +29,7 @@ public class EmailConfirmationService {
     }
 
     public void confirm(String token, UserRepository userRepository) {
-        EmailConfirmation conf = repository.findByToken(token)
+        EmailConfirmation conf = repository.findByTokenHash(TokenHasher.hash(token))
                 .orElseThrow(() -> new IllegalArgumentException("Token invalide"));
 
         if (conf.isUsed() || conf.getExpiresAt().isBefore(LocalDateTime.now())) {
@@ -0,0 +1,81 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.repository.EmailConfirmationRepository;
+import com.sararahmani.site.backend.repository.OutboxMessageRepository;
+import com.sararahmani.site.backend.repository.PasswordResetTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.function.BiFunction;
+
+// Purge périodique des tokens de confirmation email et de réinitialisation expirés depuis
+// plus de retention-hours. Les tokens utilisés expirent eux aussi (24 h au plus) : ils partent
+// avec la même condition sur expires_at, ce qui garde la purge sur l'index et laisse le message
+// "lien déjà utilisé" valable jusqu'à l'expiration. Les emails de l'outbox envoyés ou abandonnés depuis
+// plus de retention-hours partent aussi. Suppression par lots, une transaction par lot.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "tokens.purge.enabled", havingValue = "true", matchIfMissing = true)
+public class ExpiredTokenPurger {
+
+    private final EmailConfirmationRepository emailConfirmationRepository;
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final long retentionHours;
+    private final int batchSize;
+
+    private final Counter emailConfirmationsPurged;
+    private final Counter passwordResetTokensPurged;
+    private final Counter outboxMessagesPurged;
+
+    public ExpiredTokenPurger(
+            EmailConfirmationRepository emailConfirmationRepository,
+            PasswordResetTokenRepository passwordResetTokenRepository,
+            OutboxMessageRepository outboxMessageRepository,
+            MeterRegistry meterRegistry,
+            @Value("${tokens.purge.retention-hours:168}") long retentionHours,
+            @Value("${tokens.purge.batch-size:1000}") int batchSize
+    ) {
+        this.emailConfirmationRepository = emailConfirmationRepository;
+        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.retentionHours = retentionHours;
+        this.batchSize = batchSize;
+        this.emailConfirmationsPurged = meterRegistry.counter("tokens.purged", "table", "email_confirmations");
+        this.passwordResetTokensPurged = meterRegistry.counter("tokens.purged", "table", "password_reset_tokens");
+        this.outboxMessagesPurged = meterRegistry.counter("tokens.purged", "table", "outbox");
+    }
+
+    @Scheduled(cron = "${tokens.purge.cron:0 30 3 * * *}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+
+        int confirmations = purge(emailConfirmationRepository::deleteExpiredBefore, cutoff);
+        emailConfirmationsPurged.increment(confirmations);
+        int resetTokens = purge(passwordResetTokenRepository::deleteExpiredBefore, cutoff);
+        passwordResetTokensPurged.increment(resetTokens);
+
+        int outboxMessages = purge(outboxMessageRepository::deleteFinishedBefore, cutoff);
+        outboxMessagesPurged.increment(outboxMessages);
+
+        log.info("Purge des tokens expirés avant {} : {} confirmations email, {} réinitialisations, {} emails outbox",
+                cutoff, confirmations, resetTokens, outboxMessages);
+    }
+
+    // Lots successifs jusqu'à un lot incomplet : chaque DELETE verrouille au plus batchSize lignes
+    private int purge(BiFunction<LocalDateTime, Integer, Integer> deleteBatch, LocalDateTime cutoff) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = deleteBatch.apply(cutoff, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,192 @@
+package com.sararahmani.site.backend.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sararahmani.site.backend.exception.BadRequestException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Lecture en flux des enregistrements d'un import : un enregistrement à la fois, jamais le fichier entier.
+// CSV : ligne d'en-tête (séparateur , ou ;), champs entre guillemets RFC 4180, numéro = ligne du fichier.
+// JSON : tableau d'objets à plat, numéro = position dans le tableau (à partir de 1).
+public abstract class ImportRecordReader implements Closeable {
+
+    public record ImportRecord(long number, Map<String, String> fields) {
+
+        public String get(String field) {
+            String value = fields.get(field);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+
+    // null en fin de flux ; BadRequestException si le contenu est mal formé
+    public abstract ImportRecord next() throws IOException;
+
+    public static ImportRecordReader csv(InputStream in) throws IOException {
+        return new Csv(in);
+    }
+
+    public static ImportRecordReader json(InputStream in, ObjectMapper objectMapper) throws IOException {
+        return new Json(in, objectMapper);
+    }
+
+    private static final class Csv extends ImportRecordReader {
+
+        private final BufferedReader reader;
+        private final List<String> header;
+        private final char separator;
+        private long line = 1;
+
+        Csv(InputStream in) throws IOException {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            reader.mark(1);
+            if (reader.read() != '\uFEFF') {
+                // Pas de BOM (ajouté par Excel) : on relit le premier caractère
+                reader.reset();
+            }
+            String first = reader.readLine();
+            if (first == null || first.isBlank()) {
+                throw new BadRequestException("CSV vide : ligne d'en-tête attendue");
+            }
+            this.separator = first.indexOf(';') >= 0 && first.indexOf(',') < 0 ? ';' : ',';
+            this.header = new ArrayList<>();
+            for (String column : split(first)) {
+                header.add(column.trim());
+            }
+        }
+
+        @Override
+        public ImportRecord next() throws IOException {
+            List<String> values;
+            long number;
+            do {
+                number = line + 1;
+                values = readRow();
+                if (values == null) {
+                    return null;
+                }
+            } while (values.size() == 1 && values.get(0).isBlank());
+
+            if (values.size() > header.size()) {
+                throw new BadRequestException("Ligne " + number + " : " + values.size()
+                        + " colonnes pour " + header.size() + " en en-tête");
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                fields.put(header.get(i), values.get(i));
+            }
+            return new ImportRecord(number, fields);
+        }
+
+        // Une ligne logique : un champ entre guillemets peut contenir des retours à la ligne
+        private List<String> readRow() throws IOException {
+            String physical = reader.readLine();
+            if (physical == null) {
+                return null;
+            }
+            line++;
+            StringBuilder row = new StringBuilder(physical);
+            while (unbalancedQuotes(row)) {
+                String continuation = reader.readLine();
+                if (continuation == null) {
+                    throw new BadRequestException("Ligne " + line + " : guillemet non fermé");
+                }
+                line++;
+                row.append('\n').append(continuation);
+            }
+            return split(row);
+        }
+
+        private static boolean unbalancedQuotes(CharSequence row) {
+            int quotes = 0;
+            for (int i = 0; i < row.length(); i++) {
+                if (row.charAt(i) == '"') {
+                    quotes++;
+                }
+            }
+            return quotes % 2 != 0;
+        }
+
+        private List<String> split(CharSequence row) {
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < row.length(); i++) {
+                char c = row.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                        value.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        value.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == separator) {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else {
+                    value.append(c);
+                }
+            }
+            values.add(value.toString());
+            return values;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class Json extends ImportRecordReader {
+
+        private final JsonParser parser;
+        private long index;
+
+        Json(InputStream in, ObjectMapper objectMapper) throws IOException {
+            this.parser = objectMapper.getFactory().createParser(in);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("JSON : tableau d'objets attendu");
+            }
+        }
+
+        @Override
+        public ImportRecord next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY || token == null) {
+                return null;
+            }
+            index++;
+            if (token != JsonToken.START_OBJECT) {
+                throw new BadRequestException("Enregistrement " + index + " : objet JSON attendu");
+            }
+            JsonNode node = parser.readValueAsTree();
+            Map<String, String> fields = new HashMap<>();
+            node.fields().forEachRemaining(field -> {
+                if (!field.getValue().isNull()) {
+                    fields.put(field.getKey(), field.getValue().asText());
+                }
+            });
+            return new ImportRecord(index, fields);
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
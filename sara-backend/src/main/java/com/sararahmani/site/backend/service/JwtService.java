@@ -1,8 +1,12 @@
 package com.sararahmani.site.backend.service;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -13,15 +17,41 @@ import java.util.Map;
 @Service
 public class JwtService {
 
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
+    private static final long DEFAULT_VERIFIED_CACHE_SIZE = 10_000;
+
     private final Key key;
     private final long expiration;
 
+    // Le parser est immuable et thread-safe : construit une seule fois
+    private final JwtParser parser;
+
+    // Tokens déjà vérifiés (clé = token complet, pas seulement la signature,
+    // pour qu'un header/payload modifié ne puisse jamais tomber sur une entrée)
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtService(String secret, long expiration) {
+        this(secret, expiration, DEFAULT_VERIFIED_CACHE_SIZE);
+    }
+
+    @Autowired
     public JwtService(
             @Value("${jwt.secret}") String secret,
-            @Value("${jwt.expiration}") long expiration
+            @Value("${jwt.expiration}") long expiration,
+            @Value("${jwt.verified-cache-size:10000}") long verifiedCacheSize
     ) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expiration = expiration;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .recordStats()
+                .build();
     }
 
     public String generateToken(String subject, Map<String, Object> claims) {
@@ -37,24 +67,53 @@ public class JwtService {
                 .compact();
     }
 
-    public String extractSubject(String token) {
-        return parseClaims(token).getBody().getSubject();
-    }
+    public JwtVerification verify(String token) {
+        if (token == null || token.isBlank()) {
+            return JwtVerification.failed(JwtVerification.Failure.MISSING);
+        }
+
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            if (isExpired(cached)) {
+                verifiedTokens.invalidate(token);
+                return JwtVerification.failed(JwtVerification.Failure.EXPIRED);
+            }
+            return JwtVerification.valid(cached);
+        }
 
-    public boolean isTokenValid(String token) {
         try {
-            parseClaims(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            verifiedTokens.put(token, claims);
+            return JwtVerification.valid(claims);
+        } catch (ExpiredJwtException e) {
+            return JwtVerification.failed(JwtVerification.Failure.EXPIRED);
+        } catch (UnsupportedJwtException e) {
+            return JwtVerification.failed(JwtVerification.Failure.UNSUPPORTED);
+        } catch (io.jsonwebtoken.security.SecurityException e) {
+            return JwtVerification.failed(JwtVerification.Failure.INVALID_SIGNATURE);
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return JwtVerification.failed(JwtVerification.Failure.MALFORMED);
         }
     }
 
-    private Jws<Claims> parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
+    public String extractSubject(String token) {
+        JwtVerification verification = verify(token);
+        if (!verification.isValid()) {
+            throw new MalformedJwtException("Token invalide : " + verification.failure());
+        }
+        return verification.subject();
+    }
+
+    public boolean isTokenValid(String token) {
+        return verify(token).isValid();
+    }
+
+    public CacheStats verificationCacheStats() {
+        return verifiedTokens.stats();
     }
-}
 
+    private boolean isExpired(Claims claims) {
+        Date exp = claims.getExpiration();
+        return exp != null && exp.before(new Date());
+    }
+}
@@ -0,0 +1,27 @@
+package com.sararahmani.site.backend.service;
+
+import io.jsonwebtoken.Claims;
+
+// Résultat d'une vérification JWT : soit les claims vérifiés, soit la cause de l'échec
+public record JwtVerification(Claims claims, Failure failure) {
+
+    public enum Failure {
+        MISSING, MALFORMED, UNSUPPORTED, INVALID_SIGNATURE, EXPIRED
+    }
+
+    public static JwtVerification valid(Claims claims) {
+        return new JwtVerification(claims, null);
+    }
+
+    public static JwtVerification failed(Failure failure) {
+        return new JwtVerification(null, failure);
+    }
+
+    public boolean isValid() {
+        return claims != null;
+    }
+
+    public String subject() {
+        return claims != null ? claims.getSubject() : null;
+    }
+}
@@ -0,0 +1,233 @@
+package com.sararahmani.site.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// File d'envoi des emails : les requêtes HTTP déposent les messages dans une file bornée,
+// des workers dédiés les envoient par lots (une connexion SMTP par lot) avec retry + backoff
+@Slf4j
+@Service
+public class MailDispatcher {
+
+    private final JavaMailSender mailSender;
+    private final BlockingQueue<PendingMail> queue;
+    private final int workerCount;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+
+    private final ExecutorService workers;
+    private final ScheduledExecutorService retryScheduler;
+    // Emails en attente de retry : terminés en échec à l'arrêt plutôt que laissés sans réponse
+    private final Set<PendingMail> retrying = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+
+    private final Timer sendTimer;
+    private final Timer deliveryTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter retriedCounter;
+    private final Counter rejectedCounter;
+
+    public MailDispatcher(
+            JavaMailSender mailSender,
+            MeterRegistry meterRegistry,
+            @Value("${mail.dispatcher.queue-capacity:1000}") int queueCapacity,
+            @Value("${mail.dispatcher.workers:2}") int workerCount,
+            @Value("${mail.dispatcher.batch-size:20}") int batchSize,
+            @Value("${mail.dispatcher.max-attempts:5}") int maxAttempts,
+            @Value("${mail.dispatcher.initial-backoff-ms:1000}") long initialBackoffMs
+    ) {
+        this.mailSender = mailSender;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.workers = Executors.newFixedThreadPool(workerCount, namedThreads("mail-dispatcher-"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("mail-retry-"));
+
+        Gauge.builder("mail.queue.depth", queue, Collection::size)
+                .description("Emails en attente d'envoi")
+                .register(meterRegistry);
+        this.sendTimer = Timer.builder("mail.send.batch")
+                .description("Durée d'envoi SMTP d'un lot")
+                .register(meterRegistry);
+        this.deliveryTimer = Timer.builder("mail.delivery.latency")
+                .description("Délai entre la mise en file et l'envoi effectif")
+                .register(meterRegistry);
+        this.sentCounter = meterRegistry.counter("mail.sent");
+        this.failedCounter = meterRegistry.counter("mail.failed");
+        this.retriedCounter = meterRegistry.counter("mail.retried");
+        this.rejectedCounter = meterRegistry.counter("mail.rejected");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::runWorker);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Les workers vident la file avant de s'arrêter
+        running = false;
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+        retryScheduler.shutdownNow();
+        retryScheduler.awaitTermination(1, TimeUnit.SECONDS);
+
+        // Retries annulés et reste de la file (workers arrêtés avant de la vider) : chaque futur est
+        // complété, le relais outbox reprogramme ces messages pour la prochaine instance
+        MailSendException stopped = new MailSendException("Envoi interrompu par l'arrêt de l'application");
+        List<PendingMail> abandoned = new ArrayList<>(retrying);
+        queue.drainTo(abandoned);
+        for (PendingMail mail : abandoned) {
+            if (mail.future.completeExceptionally(stopped)) {
+                failedCounter.increment();
+            }
+        }
+        retrying.clear();
+    }
+
+    public CompletableFuture<Void> enqueue(SimpleMailMessage message) {
+        PendingMail mail = new PendingMail(message);
+        if (!queue.offer(mail)) {
+            rejectedCounter.increment();
+            mail.future.completeExceptionally(new MailSendException("File d'envoi des emails pleine"));
+        }
+        return mail.future;
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void runWorker() {
+        List<PendingMail> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMail first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Erreur inattendue du worker d'envoi d'emails", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(List<PendingMail> batch) {
+        SimpleMailMessage[] messages = batch.stream()
+                .map(PendingMail::message)
+                .toArray(SimpleMailMessage[]::new);
+
+        Timer.Sample sample = Timer.start();
+        try {
+            mailSender.send(messages);
+            batch.forEach(this::markSent);
+        } catch (MailSendException e) {
+            // Sans détail par message, c'est tout le lot qui a échoué (connexion SMTP)
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            for (PendingMail mail : batch) {
+                if (failedMessages.isEmpty() || failedMessages.containsKey(mail.message())) {
+                    retryOrFail(mail, e);
+                } else {
+                    markSent(mail);
+                }
+            }
+        } catch (MailException e) {
+            batch.forEach(mail -> retryOrFail(mail, e));
+        } finally {
+            sample.stop(sendTimer);
+        }
+    }
+
+    private void markSent(PendingMail mail) {
+        sentCounter.increment();
+        deliveryTimer.record(System.nanoTime() - mail.enqueuedAt, TimeUnit.NANOSECONDS);
+        mail.future.complete(null);
+    }
+
+    private void retryOrFail(PendingMail mail, Exception cause) {
+        mail.attempts++;
+        if (mail.attempts >= maxAttempts || !running) {
+            failedCounter.increment();
+            log.warn("Echec d'envoi d'email après {} tentative(s) : {}", mail.attempts, cause.getMessage());
+            mail.future.completeExceptionally(cause);
+            return;
+        }
+
+        retriedCounter.increment();
+        long delay = initialBackoffMs << (mail.attempts - 1);
+        retrying.add(mail);
+        retryScheduler.schedule(() -> {
+            if (!queue.offer(mail)) {
+                rejectedCounter.increment();
+                mail.future.completeExceptionally(cause);
+            }
+            retrying.remove(mail);
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class PendingMail {
+        private final SimpleMailMessage message;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private int attempts;
+
+        private PendingMail(SimpleMailMessage message) {
+            this.message = message;
+        }
+
+        private SimpleMailMessage message() {
+            return message;
+        }
+    }
+}
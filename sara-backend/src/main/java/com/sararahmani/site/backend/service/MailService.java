@@ -1,21 +1,37 @@
 package com.sararahmani.site.backend.service;
 
+import com.sararahmani.site.backend.config.MetricsConfig;
+import com.sararahmani.site.backend.entity.OutboxMessage;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @RequiredArgsConstructor
 public class MailService {
 
-    private final JavaMailSender mailSender;
+    // Envoi asynchrone : la requête HTTP n'attend plus le serveur SMTP
+    private final MailDispatcher mailDispatcher;
 
     @Value("${frontend.url:http://localhost:4200}")
     private String frontendUrl;
 
-    public void sendConfirmationEmail(String email, String token) {
+    // Seul point d'envoi, utilisé par le relais outbox : le futur indique si l'email est réellement parti
+    // (échec, file pleine comprise, traité par OutboxRelay qui reprogramme le message)
+    public CompletableFuture<Void> deliver(OutboxMessage outboxMessage) {
+        SimpleMailMessage message = switch (outboxMessage.getType()) {
+            case EMAIL_CONFIRMATION -> confirmationMessage(outboxMessage.getRecipient(), outboxMessage.getPayload());
+            case PASSWORD_RESET -> passwordResetMessage(outboxMessage.getRecipient(), outboxMessage.getPayload());
+        };
+        return mailDispatcher.enqueue(message);
+    }
+
+    private SimpleMailMessage confirmationMessage(String email, String token) {
         String link = frontendUrl + "/confirm-email?token=" + token;
 
         SimpleMailMessage message = new SimpleMailMessage();
@@ -28,10 +44,10 @@ public class MailService {
                         "Ce lien expire dans 24 heures."
         );
 
-        mailSender.send(message);
+        return message;
     }
 
-    public void sendPasswordResetEmail(String email, String token) {
+    private SimpleMailMessage passwordResetMessage(String email, String token) {
         String link = frontendUrl + "/reset-password?token=" + token;
 
         SimpleMailMessage message = new SimpleMailMessage();
@@ -46,7 +62,6 @@ public class MailService {
                         "Si vous n'avez pas demandé cette réinitialisation, ignorez cet email."
         );
 
-        mailSender.send(message);
+        return message;
     }
 }
-
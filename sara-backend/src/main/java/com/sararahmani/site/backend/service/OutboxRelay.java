@@ -0,0 +1,102 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.entity.OutboxMessage;
+import com.sararahmani.site.backend.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Relaie périodiquement les emails de la table outbox vers MailService.
+// Chaque lot est réservé (bail = nextAttemptAt repoussé) dans une transaction courte,
+// puis envoyé hors transaction ; une instance qui s'arrête en cours d'envoi
+// laisse expirer le bail et le message est repris (livraison au moins une fois).
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "mail.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxMessageRepository repository;
+    private final MailService mailService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long leaseSeconds;
+
+    private final Counter relayedCounter;
+    private final Counter failedCounter;
+
+    public OutboxRelay(
+            OutboxMessageRepository repository,
+            MailService mailService,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${mail.outbox.batch-size:50}") int batchSize,
+            @Value("${mail.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${mail.outbox.lease-seconds:300}") long leaseSeconds
+    ) {
+        this.repository = repository;
+        this.mailService = mailService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.leaseSeconds = leaseSeconds;
+        this.relayedCounter = meterRegistry.counter("mail.outbox.relayed");
+        this.failedCounter = meterRegistry.counter("mail.outbox.failed");
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:2000}")
+    public void relayPending() {
+        List<OutboxMessage> batch = claimBatch();
+
+        for (OutboxMessage message : batch) {
+            mailService.deliver(message).whenComplete((ignored, error) -> {
+                if (error == null) {
+                    repository.markSent(message.getId(), LocalDateTime.now());
+                    relayedCounter.increment();
+                } else {
+                    reschedule(message, error);
+                }
+            });
+        }
+    }
+
+    private List<OutboxMessage> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxMessage> batch = repository.findBatchToRelay(now, PageRequest.of(0, batchSize));
+            for (OutboxMessage message : batch) {
+                message.setAttempts(message.getAttempts() + 1);
+                message.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+            }
+            return batch;
+        });
+    }
+
+    private void reschedule(OutboxMessage message, Throwable error) {
+        String reason = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        if (reason.length() > 500) {
+            reason = reason.substring(0, 500);
+        }
+
+        if (message.getAttempts() >= maxAttempts) {
+            log.error("Email {} abandonné après {} tentatives : {}", message.getId(), message.getAttempts(), reason);
+            repository.markAbandoned(message.getId(), LocalDateTime.now(), reason);
+            failedCounter.increment();
+            return;
+        }
+
+        // Backoff exponentiel plafonné à une heure
+        long delaySeconds = Math.min(30L << Math.min(message.getAttempts() - 1, 7), 3600);
+        repository.markFailed(message.getId(), OutboxMessage.Status.PENDING,
+                LocalDateTime.now().plusSeconds(delaySeconds), reason);
+    }
+}
@@ -0,0 +1,34 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.entity.OutboxMessage;
+import com.sararahmani.site.backend.repository.OutboxMessageRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Les emails sont enregistrés dans la table outbox, dans la transaction de l'appelant :
+// si l'inscription échoue, aucun email ne part ; si le SMTP échoue, l'email sera relayé plus tard
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    private final OutboxMessageRepository repository;
+
+    public void enqueueConfirmationEmail(String email, String token) {
+        enqueue(OutboxMessage.Type.EMAIL_CONFIRMATION, email, token);
+    }
+
+    public void enqueuePasswordResetEmail(String email, String token) {
+        enqueue(OutboxMessage.Type.PASSWORD_RESET, email, token);
+    }
+
+    private void enqueue(OutboxMessage.Type type, String recipient, String payload) {
+        repository.save(OutboxMessage.builder()
+                .type(type)
+                .recipient(recipient)
+                .payload(payload)
+                .build());
+    }
+}
@@ -0,0 +1,358 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.dto.PatientDto;
+import com.sararahmani.site.backend.repository.PatientRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Index inversé des patients, en mémoire, pour la recherche au fil de la frappe (/api/patients/search).
+// Termes : mots de nom, prenom et email sans accents ni casse, téléphone en chiffres seuls.
+// Chaque mot de la requête doit être le début d'un terme du patient, à une faute de frappe près
+// (mots de 4 à 20 lettres). Construit au démarrage, tenu à jour après chaque commit
+// (PatientSearchIndexListener) et reconstruit périodiquement pour les écritures d'autres instances.
+@Slf4j
+@Service
+public class PatientSearchIndex {
+
+    static final int MIN_FUZZY_LENGTH = 4;
+    // Au-delà, pas de variantes (~70 par lettre) : le préfixe exact suffit à un mot aussi long
+    static final int MAX_FUZZY_LENGTH = 20;
+    // Bornes de la requête : caractères lus, mots retenus, longueur d'un mot
+    static final int MAX_QUERY_LENGTH = 100;
+    static final int MAX_QUERY_TOKENS = 5;
+    static final int MAX_TOKEN_LENGTH = 40;
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789";
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern PHONE_QUERY = Pattern.compile("[+0-9][0-9 .\\-]*");
+    private static final Comparator<Entry> BY_NAME = Comparator.comparing(Entry::sortKey)
+            .thenComparing(entry -> entry.patient().id());
+
+    private final PatientRepository patientRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+    // Non null pendant une reconstruction : mises à jour à rejouer sur le nouvel état
+    private List<Runnable> pendingDuringRebuild;
+
+    public PatientSearchIndex(PatientRepository patientRepository) {
+        this.patientRepository = patientRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${patients.search.refresh-ms:600000}",
+            fixedDelayString = "${patients.search.refresh-ms:600000}"
+    )
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State newState = new State();
+        boolean loaded = false;
+        try {
+            List<PatientDto> patients = new ArrayList<>(patientRepository.findAllForSearch());
+            patients.sort(Comparator.comparing((PatientDto patient) -> normalize(patient.nom() + " " + patient.prenom()))
+                    .thenComparing(PatientDto::id));
+            patients.forEach(newState::add);
+            newState.ranked = patients.size();
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    state = newState;
+                    pendingDuringRebuild.forEach(Runnable::run);
+                }
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.debug("Index de recherche des patients reconstruit : {} patients, {} termes",
+                newState.ranked, newState.terms.size());
+    }
+
+    public void put(PatientDto patient) {
+        update(() -> state.add(patient));
+    }
+
+    public void remove(Long id) {
+        update(() -> state.remove(id));
+    }
+
+    // Meilleurs résultats d'abord : préfixes exacts, puis avec une faute, puis par nom et prénom
+    public List<PatientDto> search(String query, int limit) {
+        List<String> tokens = queryTokens(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Un BitSet par palier sur les numéros de document : ET entre les mots de la requête
+            BitSet exact = null;
+            BitSet any = null;
+            for (String token : tokens) {
+                BitSet tokenExact = new BitSet(state.docs.size());
+                collectPrefix(token, tokenExact);
+                BitSet tokenAny = (BitSet) tokenExact.clone();
+                if (token.length() >= MIN_FUZZY_LENGTH && token.length() <= MAX_FUZZY_LENGTH && !isDigits(token)) {
+                    for (String variant : typoVariants(token)) {
+                        collectPrefix(variant, tokenAny);
+                    }
+                }
+                if (exact == null) {
+                    exact = tokenExact;
+                    any = tokenAny;
+                } else {
+                    exact.and(tokenExact);
+                    any.and(tokenAny);
+                }
+            }
+            exact.and(state.live);
+            any.and(state.live);
+            any.andNot(exact);
+
+            List<PatientDto> result = new ArrayList<>(limit);
+            first(exact, limit, result);
+            first(any, limit - result.size(), result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Les n premiers d'un palier sans trier toutes les correspondances : les numéros classés sont dans
+    // l'ordre des noms, seuls les patients ajoutés depuis la dernière reconstruction sont triés ici
+    private void first(BitSet matches, int n, List<PatientDto> into) {
+        if (n <= 0) {
+            return;
+        }
+        List<Entry> picked = new ArrayList<>(n);
+        for (int doc = matches.nextSetBit(0); doc >= 0 && doc < state.ranked && picked.size() < n;
+             doc = matches.nextSetBit(doc + 1)) {
+            picked.add(state.docs.get(doc));
+        }
+        int fromRanked = picked.size();
+        for (int doc = matches.nextSetBit(state.ranked); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            picked.add(state.docs.get(doc));
+        }
+        if (picked.size() > fromRanked) {
+            picked.sort(BY_NAME);
+        }
+        for (int i = 0; i < Math.min(n, picked.size()); i++) {
+            into.add(picked.get(i).patient());
+        }
+    }
+
+    private void collectPrefix(String prefix, BitSet into) {
+        // Termes en ASCII minuscule : ceux qui commencent par prefix sont dans [prefix, prefix + MAX_VALUE)
+        for (Postings postings : state.terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            postings.addTo(into);
+        }
+    }
+
+    // Chaînes à une distance d'édition de token (suppression, inversion, substitution, insertion) :
+    // un terme dont un préfixe est à une faute de token commence par l'une d'elles
+    static Set<String> typoVariants(String token) {
+        Set<String> variants = new LinkedHashSet<>();
+        StringBuilder buffer = new StringBuilder(token.length() + 1);
+        for (int i = 0; i < token.length(); i++) {
+            buffer.setLength(0);
+            variants.add(buffer.append(token, 0, i).append(token, i + 1, token.length()).toString());
+            if (i + 1 < token.length()) {
+                buffer.setLength(0);
+                variants.add(buffer.append(token, 0, i).append(token.charAt(i + 1)).append(token.charAt(i))
+                        .append(token, i + 2, token.length()).toString());
+            }
+            for (int c = 0; c < ALPHABET.length(); c++) {
+                buffer.setLength(0);
+                variants.add(buffer.append(token, 0, i).append(ALPHABET.charAt(c))
+                        .append(token, i + 1, token.length()).toString());
+            }
+        }
+        // Pas d'insertion en fin : token + c est déjà couvert par le préfixe exact
+        for (int i = 0; i < token.length(); i++) {
+            for (int c = 0; c < ALPHABET.length(); c++) {
+                buffer.setLength(0);
+                variants.add(buffer.append(token, 0, i).append(ALPHABET.charAt(c))
+                        .append(token, i, token.length()).toString());
+            }
+        }
+        variants.remove(token);
+        return variants;
+    }
+
+    private void update(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static Set<String> documentTerms(PatientDto patient) {
+        Set<String> result = new HashSet<>();
+        for (String field : new String[]{patient.nom(), patient.prenom(), patient.email()}) {
+            if (field != null) {
+                words(field, result);
+            }
+        }
+        String digits = digits(patient.telephone());
+        if (!digits.isEmpty()) {
+            result.add(digits);
+            // Numéro national 0X... aussi cherchable au format international +33 X...
+            if (digits.startsWith("0") && digits.length() > 1) {
+                result.add("33" + digits.substring(1));
+            }
+        }
+        return result;
+    }
+
+    // Un numéro de téléphone saisi avec espaces, points ou tirets reste un seul mot.
+    // Requête tronquée, mots en surnombre ignorés et mots trop longs coupés : coût borné par requête
+    static List<String> queryTokens(String query) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        String trimmed = query.trim();
+        if (trimmed.length() > MAX_QUERY_LENGTH) {
+            trimmed = trimmed.substring(0, MAX_QUERY_LENGTH);
+        }
+        if (PHONE_QUERY.matcher(trimmed).matches()) {
+            String digits = digits(trimmed);
+            return digits.isEmpty() ? List.of() : List.of(truncate(digits));
+        }
+        Set<String> words = new LinkedHashSet<>();
+        words(trimmed, words);
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String word : words) {
+            if (tokens.size() == MAX_QUERY_TOKENS) {
+                break;
+            }
+            tokens.add(truncate(word));
+        }
+        return List.copyOf(tokens);
+    }
+
+    private static String truncate(String token) {
+        return token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token;
+    }
+
+    private static void words(String text, Set<String> into) {
+        for (String word : SEPARATORS.split(normalize(text))) {
+            if (!word.isEmpty()) {
+                into.add(word);
+            }
+        }
+    }
+
+    // Sans accents ni casse, ligatures développées : « Lætitia Cœur » -> « laetitia coeur »
+    static String normalize(String text) {
+        String lower = text.toLowerCase(Locale.ROOT).replace("œ", "oe").replace("æ", "ae");
+        return MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    private static String digits(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    private static boolean isDigits(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (token.charAt(i) < '0' || token.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Entry(PatientDto patient, String sortKey) {
+    }
+
+    // Liste de postings : numéros de document croissants (ajoutés dans l'ordre d'attribution)
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        void addTo(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(docs[i]);
+            }
+        }
+    }
+
+    // Numéros de document 0..ranked-1 attribués par ordre de nom à la reconstruction : l'ordre des bits
+    // est l'ordre d'affichage. Ajout ou modification : nouveau numéro en fin, l'ancien est désactivé
+    // (postings nettoyés à la reconstruction suivante).
+    private static final class State {
+        private final List<Entry> docs = new ArrayList<>();
+        private final Map<Long, Integer> docById = new HashMap<>();
+        private final BitSet live = new BitSet();
+        // Trié : un préfixe est un intervalle de clés
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private int ranked;
+
+        void add(PatientDto patient) {
+            remove(patient.id());
+            int doc = docs.size();
+            docs.add(new Entry(patient, normalize(patient.nom() + " " + patient.prenom())));
+            docById.put(patient.id(), doc);
+            live.set(doc);
+            for (String term : documentTerms(patient)) {
+                terms.computeIfAbsent(term, t -> new Postings()).add(doc);
+            }
+        }
+
+        void remove(Long id) {
+            Integer doc = docById.remove(id);
+            if (doc != null) {
+                live.clear(doc);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.dto.PatientDto;
+import com.sararahmani.site.backend.entity.Patient;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Listener JPA : création (PatientService, import en masse), modification ou suppression d'un patient
+// mettent à jour l'index de recherche, seulement après le commit (un rollback ne doit rien changer)
+@Component
+public class PatientSearchIndexListener {
+
+    // Résolu à la demande : le listener est créé pendant le démarrage de Hibernate,
+    // avant le repository dont dépend l'index
+    private final ObjectProvider<PatientSearchIndex> index;
+
+    public PatientSearchIndexListener(ObjectProvider<PatientSearchIndex> index) {
+        this.index = index;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Patient patient) {
+        PatientDto indexed = new PatientDto(
+                patient.getId(), patient.getNom(), patient.getPrenom(), patient.getEmail(), patient.getTelephone());
+        afterCommit(() -> index.getObject().put(indexed));
+    }
+
+    @PostRemove
+    public void onRemove(Patient patient) {
+        Long id = patient.getId();
+        afterCommit(() -> index.getObject().remove(id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
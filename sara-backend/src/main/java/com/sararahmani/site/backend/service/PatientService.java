@@ -1,7 +1,9 @@
 package com.sararahmani.site.backend.service;
 
 
+import com.sararahmani.site.backend.dto.CursorPage;
 import com.sararahmani.site.backend.dto.PatientDto;
+import com.sararahmani.site.backend.dto.PatientSort;
 
 import java.util.List;
 
@@ -9,7 +11,13 @@ public interface PatientService {
 
     PatientDto create(PatientDto dto);
 
-    List<PatientDto> findAll();
+    // q : préfixe de nom, prenom ou email (null = tous) ; page suivante via nextCursor
+    CursorPage<PatientDto> findPage(String q, PatientSort sort, String cursor, int size);
+
+    long count(String q);
+
+    // Recherche au fil de la frappe (index en mémoire) : nom, prénom, email ou téléphone
+    List<PatientDto> search(String q, int limit);
 
     PatientDto findById(Long id);
 }
@@ -0,0 +1,61 @@
+package com.sararahmani.site.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.sararahmani.site.backend.config.RateLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Seaux à jetons en mémoire, un par clé (route + IP ou email).
+// Chaque seau est un seul AtomicLong (algorithme GCRA : instant théorique où le seau sera plein),
+// mis à jour par CAS sans verrou ; la map Caffeine borne le nombre de clés et oublie les clés inactives
+@Service
+public class RateLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final Ticker ticker;
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties) {
+        this(properties.maxKeys(), properties.idleTimeout(), Ticker.systemTicker());
+    }
+
+    RateLimiter(int maxKeys, Duration idleTimeout, Ticker ticker) {
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .ticker(ticker)
+                .build();
+    }
+
+    // 0 si la requête passe, sinon le délai (ns) avant le prochain jeton
+    public long tryAcquire(String key, RateLimitProperties.Limit limit) {
+        long interval = TimeUnit.MINUTES.toNanos(1) / limit.refillPerMinute();
+        long burst = interval * limit.capacity();
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+
+        while (true) {
+            long now = ticker.read();
+            long current = bucket.get();
+            long next = Math.max(current, now) + interval;
+            long excess = next - now - burst;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
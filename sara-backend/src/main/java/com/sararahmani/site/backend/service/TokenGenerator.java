@@ -0,0 +1,50 @@
+package com.sararahmani.site.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Tokens envoyés par email (confirmation, réinitialisation) : entropyBytes octets aléatoires
+// en base64 URL sans padding (32 octets -> 43 caractères). Plusieurs SecureRandom DRBG tirés au hasard
+// par appel : UUID.randomUUID() et NativePRNG passent tous par une même instance synchronisée.
+// Pas de ThreadLocal : avec les threads virtuels (un thread par requête), il créerait et
+// initialiserait un DRBG à chaque requête
+@Component
+public class TokenGenerator {
+
+    static final int MIN_ENTROPY_BYTES = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final int entropyBytes;
+    private final SecureRandom[] randoms;
+
+    public TokenGenerator(@Value("${security.tokens.entropy-bytes:32}") int entropyBytes) {
+        if (entropyBytes < MIN_ENTROPY_BYTES) {
+            throw new IllegalArgumentException("security.tokens.entropy-bytes doit valoir au moins " + MIN_ENTROPY_BYTES);
+        }
+        this.entropyBytes = entropyBytes;
+        // Deux instances par coeur : contention négligeable sur le verrou interne du DRBG
+        this.randoms = new SecureRandom[2 * Runtime.getRuntime().availableProcessors()];
+        for (int i = 0; i < randoms.length; i++) {
+            randoms[i] = newSecureRandom();
+        }
+    }
+
+    public String generate() {
+        byte[] bytes = new byte[entropyBytes];
+        randoms[ThreadLocalRandom.current().nextInt(randoms.length)].nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
+    }
+
+    private static SecureRandom newSecureRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+}
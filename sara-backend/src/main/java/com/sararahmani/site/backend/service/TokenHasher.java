@@ -0,0 +1,25 @@
+package com.sararahmani.site.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+// Les tokens envoyés par email (confirmation, réinitialisation) ne sont stockés que sous forme
+// d'empreinte SHA-256 (32 octets) : une fuite de la table ne donne aucun lien utilisable.
+// Le token en clair ne reste que dans outbox.payload, tant que l'email n'est ni envoyé ni abandonné
+public final class TokenHasher {
+
+    public static final int HASH_LENGTH = 32;
+
+    private TokenHasher() {
+    }
+
+    public static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 est garanti par toute JVM
+            throw new IllegalStateException(e);
+        }
+    }
+}
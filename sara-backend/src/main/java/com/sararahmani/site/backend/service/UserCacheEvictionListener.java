@@ -0,0 +1,22 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// Listener JPA : toute mise à jour ou suppression d'un User (confirmation email,
+// reset mot de passe, changement de rôle...) invalide le principal en cache
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+
+    private final UserPrincipalCache principalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        principalCache.evict(user);
+    }
+}
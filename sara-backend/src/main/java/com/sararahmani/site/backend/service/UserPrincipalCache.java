@@ -0,0 +1,142 @@
+package com.sararahmani.site.backend.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sararahmani.site.backend.dto.UserAuthState;
+import com.sararahmani.site.backend.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+// Caches bornés (taille + TTL) utilisés par le filtre JWT :
+// - principals : utilisateur complet par email (mode avec chargement de l'entité)
+// - authStates : version de token + activation par id (mode stateless, TTL court)
+@Service
+public class UserPrincipalCache {
+
+    private final Region<String, User> principals;
+    private final Region<Long, UserAuthState> authStates;
+
+    public UserPrincipalCache(long ttlSeconds, long maximumSize, long tokenVersionTtlSeconds) {
+        this(ttlSeconds, maximumSize, tokenVersionTtlSeconds, false);
+    }
+
+    @Autowired
+    public UserPrincipalCache(
+            @Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${security.principal-cache.maximum-size:10000}") long maximumSize,
+            @Value("${security.principal-cache.token-version-ttl-seconds:30}") long tokenVersionTtlSeconds,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.principals = new Region<>(Duration.ofSeconds(ttlSeconds), maximumSize, virtualThreads);
+        this.authStates = new Region<>(Duration.ofSeconds(tokenVersionTtlSeconds), maximumSize, virtualThreads);
+    }
+
+    public Optional<User> get(String email, Function<String, Optional<User>> loader) {
+        return principals.get(email, loader);
+    }
+
+    public Optional<UserAuthState> getAuthState(Long userId, Function<Long, Optional<UserAuthState>> loader) {
+        return authStates.get(userId, loader);
+    }
+
+    public void evict(User user) {
+        invalidate(user);
+
+        // Dans une transaction, on invalide aussi après le commit pour éviter
+        // qu'une requête concurrente remette en cache l'ancienne ligne
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(user);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        principals.cache.invalidateAll();
+        authStates.cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return principals.cache.stats();
+    }
+
+    public CacheStats authStateStats() {
+        return authStates.cache.stats();
+    }
+
+    public long hitCount() {
+        return principals.cache.stats().hitCount() + authStates.cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return principals.cache.stats().missCount() + authStates.cache.stats().missCount();
+    }
+
+    public long size() {
+        return principals.cache.estimatedSize();
+    }
+
+    private void invalidate(User user) {
+        if (user.getEmail() != null) {
+            principals.cache.invalidate(user.getEmail());
+        }
+        if (user.getId() != null) {
+            authStates.cache.invalidate(user.getId());
+        }
+    }
+
+    // Chargement atomique par clé : une invalidation (révocation) pendant le chargement n'est jamais
+    // écrasée par la valeur lue avant elle. Un utilisateur absent n'est pas mis en cache.
+    private static final class Region<K, V> {
+        private final Cache<K, V> cache;
+        // Threads virtuels uniquement : Cache.get(key, loader) exécute le loader dans un bloc synchronized
+        // de ConcurrentHashMap, qui épinglerait le thread porteur pendant l'appel JDBC. Le chargement tourne
+        // alors hors du verrou, derrière un futur réservé dans le cache : les requêtes concurrentes
+        // l'attendent et une invalidation retire le futur, sa valeur n'est donc pas remise en cache
+        private final AsyncCache<K, V> async;
+
+        Region(Duration ttl, long maximumSize, boolean virtualThreads) {
+            Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                    .expireAfterWrite(ttl)
+                    .maximumSize(maximumSize)
+                    .recordStats();
+            this.async = virtualThreads ? builder.buildAsync() : null;
+            this.cache = virtualThreads ? async.synchronous() : builder.build();
+        }
+
+        Optional<V> get(K key, Function<K, Optional<V>> loader) {
+            if (async == null) {
+                return Optional.ofNullable(cache.get(key, k -> loader.apply(k).orElse(null)));
+            }
+            CompletableFuture<V> current = async.getIfPresent(key);
+            if (current == null) {
+                CompletableFuture<V> pending = new CompletableFuture<>();
+                current = async.asMap().putIfAbsent(key, pending);
+                if (current == null) {
+                    // Valeur null ou exception : Caffeine retire le futur à sa complétion
+                    try {
+                        pending.complete(loader.apply(key).orElse(null));
+                    } catch (RuntimeException e) {
+                        pending.completeExceptionally(e);
+                        throw e;
+                    }
+                    current = pending;
+                }
+            }
+            return Optional.ofNullable(current.join());
+        }
+    }
+}
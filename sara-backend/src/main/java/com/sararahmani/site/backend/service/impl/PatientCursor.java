@@ -0,0 +1,32 @@
+package com.sararahmani.site.backend.service.impl;
+
+import com.sararahmani.site.backend.dto.PatientSort;
+import com.sararahmani.site.backend.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Position dans la liste triée par (colonne de tri asc, id asc) : dernier élément de la page précédente.
+// Le tri fait partie du curseur : un curseur ne peut pas être rejoué avec un autre tri.
+record PatientCursor(PatientSort sort, String value, Long id) {
+
+    String encode() {
+        // La valeur en dernier : elle peut contenir le séparateur
+        String raw = sort.name() + "|" + id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static PatientCursor decode(String cursor, PatientSort expectedSort) {
+        PatientCursor decoded;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+            decoded = new PatientCursor(PatientSort.valueOf(parts[0]), parts[2], Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Curseur de pagination invalide");
+        }
+        if (decoded.sort() != expectedSort) {
+            throw new BadRequestException("Curseur de pagination invalide pour le tri " + expectedSort.attribute());
+        }
+        return decoded;
+    }
+}
@@ -1,10 +1,16 @@
 package com.sararahmani.site.backend.service.impl;
 
+import com.sararahmani.site.backend.config.MetricsConfig;
+import com.sararahmani.site.backend.dto.CursorPage;
 import com.sararahmani.site.backend.dto.PatientDto;
+import com.sararahmani.site.backend.dto.PatientSort;
 import com.sararahmani.site.backend.entity.Patient;
 import com.sararahmani.site.backend.repository.PatientRepository;
+import com.sararahmani.site.backend.service.PatientSearchIndex;
 import com.sararahmani.site.backend.service.PatientService;
 import com.sararahmani.site.backend.service.mapper.PatientMapper;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -12,12 +18,17 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Transactional
 @AllArgsConstructor
 public class PatientServiceImpl implements PatientService {
 
+    public static final int PAGE_SIZE_MAX = 200;
+    public static final int SEARCH_LIMIT_MAX = 50;
+
     private final PatientRepository repository;
     private final PatientMapper mapper;
+    private final PatientSearchIndex searchIndex;
 
     @Override
     public PatientDto create(PatientDto dto) {
@@ -28,10 +39,41 @@ public class PatientServiceImpl implements PatientService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<PatientDto> findAll() {
-        return repository.findAll().stream()
-                .map(mapper::toDto)
-                .toList();
+    public CursorPage<PatientDto> findPage(String q, PatientSort sort, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, PAGE_SIZE_MAX));
+        PatientCursor after = cursor == null || cursor.isBlank() ? null : PatientCursor.decode(cursor, sort);
+
+        // Une ligne de plus que demandé pour savoir s'il existe une page suivante
+        List<PatientDto> rows = repository.findPage(
+                prefix(q),
+                sort,
+                after == null ? null : after.value(),
+                after == null ? null : after.id(),
+                pageSize + 1
+        );
+
+        boolean hasNext = rows.size() > pageSize;
+        List<PatientDto> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            PatientDto last = page.get(page.size() - 1);
+            nextCursor = new PatientCursor(sort, sortValue(last, sort), last.id()).encode();
+        }
+
+        return new CursorPage<>(List.copyOf(page), nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long count(String q) {
+        return repository.countMatching(prefix(q));
+    }
+
+    // Sans transaction ni requête : l'index est à jour des commits de cette instance
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<PatientDto> search(String q, int limit) {
+        return searchIndex.search(q, Math.max(1, Math.min(limit, SEARCH_LIMIT_MAX)));
     }
 
     @Override
@@ -41,5 +83,16 @@ public class PatientServiceImpl implements PatientService {
                 .map(mapper::toDto)
                 .orElseThrow(() -> new IllegalArgumentException("Patient introuvable: " + id));
     }
-}
 
+    private static String prefix(String q) {
+        return q == null || q.isBlank() ? null : q.trim();
+    }
+
+    private static String sortValue(PatientDto patient, PatientSort sort) {
+        return switch (sort) {
+            case NOM -> patient.nom();
+            case PRENOM -> patient.prenom();
+            case EMAIL -> patient.email();
+        };
+    }
+}
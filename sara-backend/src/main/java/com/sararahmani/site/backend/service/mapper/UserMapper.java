@@ -12,6 +12,7 @@ public interface UserMapper {
     @Mapping(target = "password", ignore = true)   // hashé après
     @Mapping(target = "role", expression = "java(Role.PATIENT)")
     @Mapping(target = "enabled", expression = "java(false)")
+    @Mapping(target = "tokenVersion", ignore = true)   // valeur par défaut de l'entité (0)
     User fromRegister(RegisterRequest request);
 
     @Mapping(target = "token", source = "token")
@@ -0,0 +1,127 @@
+package com.sararahmani.site.backend.integration;
+
+import com.sararahmani.site.backend.dto.AppointmentRequest;
+import com.sararahmani.site.backend.entity.Role;
+import com.sararahmani.site.backend.entity.User;
+import com.sararahmani.site.backend.exception.ConflictException;
+import com.sararahmani.site.backend.repository.AppointmentDayLockRepository;
+import com.sararahmani.site.backend.repository.AppointmentRepository;
+import com.sararahmani.site.backend.repository.UserRepository;
+import com.sararahmani.site.backend.service.AppointmentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AppointmentConcurrencyIntegrationTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentDayLockRepository dayLockRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User patient;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository.deleteAll();
+        dayLockRepository.deleteAll();
+        userRepository.deleteAll();
+
+        patient = userRepository.save(User.builder()
+                .email("concurrent@example.com")
+                .password("hash")
+                .nom("Concurrent")
+                .prenom("Test")
+                .role(Role.PATIENT)
+                .enabled(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAll();
+        dayLockRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Reservations simultanees du meme creneau - une seule reussit")
+    void sameSlot_OnlyOneSucceeds() throws Exception {
+        LocalDateTime slot = LocalDateTime.now().plusDays(10).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+        List<Object> results = bookConcurrently(i -> new AppointmentRequest(slot, "Tentative " + i));
+
+        assertThat(results).filteredOn(r -> !(r instanceof Throwable)).hasSize(1);
+        assertThat(results).filteredOn(r -> r instanceof ConflictException).hasSize(THREADS - 1);
+        assertThat(appointmentRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Reservations simultanees de creneaux qui se chevauchent - une seule reussit")
+    void overlappingSlots_OnlyOneSucceeds() throws Exception {
+        LocalDateTime base = LocalDateTime.now().plusDays(10).withHour(14).withMinute(0).withSecond(0).withNano(0);
+
+        // Départs décalés de 5 minutes : tous chevauchent les autres (50 min + pause)
+        List<Object> results = bookConcurrently(i -> new AppointmentRequest(base.plusMinutes(5L * i), "Tentative " + i));
+
+        assertThat(results).filteredOn(r -> !(r instanceof Throwable)).hasSize(1);
+        assertThat(results).filteredOn(r -> r instanceof ConflictException).hasSize(THREADS - 1);
+        assertThat(appointmentRepository.count()).isEqualTo(1);
+    }
+
+    private List<Object> bookConcurrently(IntFunction<AppointmentRequest> requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                AppointmentRequest request = requests.apply(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return appointmentService.createAppointment(patient.getId(), request);
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
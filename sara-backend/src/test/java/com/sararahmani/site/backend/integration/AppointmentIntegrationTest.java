@@ -8,6 +8,7 @@ import com.sararahmani.site.backend.entity.Role;
 import com.sararahmani.site.backend.entity.User;
 import com.sararahmani.site.backend.repository.AppointmentRepository;
 import com.sararahmani.site.backend.repository.UserRepository;
+import com.sararahmani.site.backend.service.AvailabilityCalendar;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -23,11 +24,14 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -49,6 +53,9 @@ class AppointmentIntegrationTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AvailabilityCalendar availabilityCalendar;
+
     private User patient;
     private User admin;
     private String patientToken;
@@ -162,6 +169,58 @@ class AppointmentIntegrationTest {
                     .andExpect(status().isConflict());
         }
 
+        @Test
+        @DisplayName("POST /api/appointments - chevauchement avec un RDV confirme")
+        void createAppointment_OverlapsConfirmed() throws Exception {
+            LocalDateTime futureDate = LocalDateTime.now().plusDays(7).withHour(10).withMinute(0).withSecond(0).withNano(0);
+            appointmentRepository.save(Appointment.builder()
+                    .dateHeure(futureDate)
+                    .motif("Existant")
+                    .patient(patient)
+                    .status(Appointment.Status.CONFIRMED)
+                    .dureeMinutes(90)
+                    .build());
+
+            // 11h00 chevauche une seance de 90 minutes commencee a 10h00
+            AppointmentRequest request = new AppointmentRequest(futureDate.plusHours(1), "Nouveau");
+
+            mockMvc.perform(post("/api/appointments")
+                            .header("Authorization", "Bearer " + patientToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isConflict());
+        }
+
+        @Test
+        @DisplayName("POST /api/appointments - creneau suivant ou RDV annule disponibles")
+        void createAppointment_NoOverlap() throws Exception {
+            LocalDateTime futureDate = LocalDateTime.now().plusDays(7).withHour(10).withMinute(0).withSecond(0).withNano(0);
+            appointmentRepository.save(Appointment.builder()
+                    .dateHeure(futureDate)
+                    .motif("Existant")
+                    .patient(patient)
+                    .build());
+            appointmentRepository.save(Appointment.builder()
+                    .dateHeure(futureDate.plusHours(2))
+                    .motif("Annule")
+                    .patient(patient)
+                    .status(Appointment.Status.CANCELLED)
+                    .build());
+
+            // 50 minutes de seance + 10 minutes de pause : 11h00 est libre
+            mockMvc.perform(post("/api/appointments")
+                            .header("Authorization", "Bearer " + patientToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new AppointmentRequest(futureDate.plusHours(1), "Suivant"))))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(post("/api/appointments")
+                            .header("Authorization", "Bearer " + patientToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new AppointmentRequest(futureDate.plusHours(2), "Remplace"))))
+                    .andExpect(status().isOk());
+        }
+
         @Test
         @DisplayName("POST /api/appointments - motif vide")
         void createAppointment_EmptyMotif() throws Exception {
@@ -248,7 +307,110 @@ class AppointmentIntegrationTest {
             mockMvc.perform(get("/api/appointments")
                             .header("Authorization", "Bearer " + adminToken))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(1)));
+                    .andExpect(jsonPath("$.items", hasSize(1)))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("GET /api/appointments - parcours complet par curseur")
+        void getAllAppointments_CursorPagination() throws Exception {
+            LocalDateTime base = LocalDateTime.now().plusDays(3).withHour(9).withMinute(0).withSecond(0).withNano(0);
+            for (int i = 0; i < 5; i++) {
+                appointmentRepository.save(Appointment.builder()
+                        .dateHeure(base.plusDays(i))
+                        .motif("RDV " + i)
+                        .patient(patient)
+                        .build());
+            }
+
+            List<String> motifs = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                var request = get("/api/appointments")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("size", "2");
+                if (cursor != null) {
+                    request.param("cursor", cursor);
+                }
+                MvcResult result = mockMvc.perform(request)
+                        .andExpect(status().isOk())
+                        .andReturn();
+                var page = objectMapper.readTree(result.getResponse().getContentAsString());
+                page.get("items").forEach(item -> motifs.add(item.get("motif").asText()));
+                cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+                pages++;
+            } while (cursor != null);
+
+            assertThat(pages).isEqualTo(3);
+            assertThat(motifs).containsExactly("RDV 4", "RDV 3", "RDV 2", "RDV 1", "RDV 0");
+        }
+
+        @Test
+        @DisplayName("GET /api/appointments - filtres statut et periode")
+        void getAllAppointments_Filters() throws Exception {
+            LocalDateTime base = LocalDateTime.now().plusDays(3).withHour(9).withMinute(0).withSecond(0).withNano(0);
+            appointmentRepository.save(Appointment.builder()
+                    .dateHeure(base).motif("Planifie").patient(patient).build());
+            appointmentRepository.save(Appointment.builder()
+                    .dateHeure(base.plusDays(1)).motif("Annule").patient(patient)
+                    .status(Appointment.Status.CANCELLED).build());
+            appointmentRepository.save(Appointment.builder()
+                    .dateHeure(base.plusDays(10)).motif("Plus tard").patient(patient).build());
+
+            mockMvc.perform(get("/api/appointments")
+                            .header("Authorization", "Bearer " + adminToken)
+                            .param("status", "PLANNED")
+                            .param("patientId", patient.getId().toString())
+                            .param("from", base.toString())
+                            .param("to", base.plusDays(5).toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(1)))
+                    .andExpect(jsonPath("$.items[0].motif").value("Planifie"));
+        }
+
+        @Test
+        @DisplayName("GET /api/appointments - curseur invalide")
+        void getAllAppointments_InvalidCursor() throws Exception {
+            mockMvc.perform(get("/api/appointments")
+                            .header("Authorization", "Bearer " + adminToken)
+                            .param("cursor", "n'importe-quoi"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("GET /api/appointments/export - une ligne JSON par rendez-vous")
+        void exportAppointments_Ndjson() throws Exception {
+            LocalDateTime base = LocalDateTime.now().plusDays(3).withHour(9).withMinute(0).withSecond(0).withNano(0);
+            for (int i = 0; i < 3; i++) {
+                appointmentRepository.save(Appointment.builder()
+                        .dateHeure(base.plusDays(i))
+                        .motif("Export " + i)
+                        .patient(patient)
+                        .build());
+            }
+
+            MvcResult result = mockMvc.perform(get("/api/appointments/export")
+                            .header("Authorization", "Bearer " + adminToken))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String body = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            String[] lines = body.split("\n");
+            assertThat(lines).hasSize(3);
+            assertThat(objectMapper.readTree(lines[0]).get("motif").asText()).isEqualTo("Export 2");
+        }
+
+        @Test
+        @DisplayName("GET /api/appointments/export - reserve a l'admin")
+        void exportAppointments_PatientForbidden() throws Exception {
+            mockMvc.perform(get("/api/appointments/export")
+                            .header("Authorization", "Bearer " + patientToken))
+                    .andExpect(status().isForbidden());
         }
 
         @Test
@@ -445,4 +607,115 @@ class AppointmentIntegrationTest {
                     .andExpect(jsonPath("$[0].canPatientCancel").value(false));
         }
     }
+
+    @Nested
+    @DisplayName("Tests d'integration - Disponibilites")
+    class AvailabilityTests {
+
+        @Test
+        @DisplayName("GET /api/appointments/availability - un creneau reserve puis annule")
+        void availability_FollowsCreateAndCancel() throws Exception {
+            LocalDateTime slot = LocalDateTime.now().plusDays(7).withHour(10).withMinute(0).withSecond(0).withNano(0);
+            String day = slot.toLocalDate().toString();
+
+            mockMvc.perform(get("/api/appointments/availability")
+                            .header("Authorization", "Bearer " + patientToken)
+                            .param("from", day)
+                            .param("to", day))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].date").value(day))
+                    .andExpect(jsonPath("$[0].slots", hasItem("10:00:00")));
+
+            MvcResult created = mockMvc.perform(post("/api/appointments")
+                            .header("Authorization", "Bearer " + patientToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new AppointmentRequest(slot, "Consultation"))))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+
+            mockMvc.perform(get("/api/appointments/availability")
+                            .header("Authorization", "Bearer " + patientToken)
+                            .param("from", day)
+                            .param("to", day))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].slots", not(hasItem("10:00:00"))))
+                    .andExpect(jsonPath("$[0].slots", hasItem("11:00:00")));
+
+            mockMvc.perform(delete("/api/appointments/" + id + "/cancel")
+                            .header("Authorization", "Bearer " + patientToken))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(get("/api/appointments/availability")
+                            .header("Authorization", "Bearer " + patientToken)
+                            .param("from", day)
+                            .param("to", day))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].slots", hasItem("10:00:00")));
+        }
+
+        @Test
+        @DisplayName("GET /api/appointments/availability - suppression admin libere le creneau")
+        void availability_FollowsAdminDelete() throws Exception {
+            LocalDateTime slot = LocalDateTime.now().plusDays(8).withHour(14).withMinute(0).withSecond(0).withNano(0);
+            String day = slot.toLocalDate().toString();
+            Appointment apt = appointmentRepository.save(Appointment.builder()
+                    .dateHeure(slot)
+                    .motif("A supprimer")
+                    .patient(patient)
+                    .build());
+
+            mockMvc.perform(get("/api/appointments/availability")
+                            .header("Authorization", "Bearer " + patientToken)
+                            .param("from", day)
+                            .param("to", day))
+                    .andExpect(jsonPath("$[0].slots", not(hasItem("14:00:00"))));
+
+            mockMvc.perform(delete("/api/appointments/" + apt.getId())
+                            .header("Authorization", "Bearer " + adminToken))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(get("/api/appointments/availability")
+                            .header("Authorization", "Bearer " + patientToken)
+                            .param("from", day)
+                            .param("to", day))
+                    .andExpect(jsonPath("$[0].slots", hasItem("14:00:00")));
+        }
+
+        @Test
+        @DisplayName("POST /api/appointments - calendrier en retard, la base decide")
+        void create_StaleCalendar_DatabaseDecides() throws Exception {
+            LocalDateTime slot = LocalDateTime.now().plusDays(9).withHour(15).withMinute(0).withSecond(0).withNano(0);
+            // RDV vu par le calendrier mais absent de la base (supprimé par une autre instance)
+            availabilityCalendar.put(-1L, slot, 50);
+            try {
+                mockMvc.perform(post("/api/appointments")
+                                .header("Authorization", "Bearer " + patientToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new AppointmentRequest(slot, "Consultation"))))
+                        .andExpect(status().isOk());
+            } finally {
+                availabilityCalendar.remove(-1L);
+            }
+        }
+
+        @Test
+        @DisplayName("GET /api/appointments/availability - periode inversee")
+        void availability_ToBeforeFrom_BadRequest() throws Exception {
+            mockMvc.perform(get("/api/appointments/availability")
+                            .header("Authorization", "Bearer " + patientToken)
+                            .param("from", "2030-01-02")
+                            .param("to", "2030-01-01"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("GET /api/appointments/availability - non authentifie")
+        void availability_Unauthenticated() throws Exception {
+            mockMvc.perform(get("/api/appointments/availability")
+                            .param("from", "2030-01-01")
+                            .param("to", "2030-01-02"))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
 }
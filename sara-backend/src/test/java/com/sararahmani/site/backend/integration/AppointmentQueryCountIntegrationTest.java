@@ -0,0 +1,119 @@
+package com.sararahmani.site.backend.integration;
+
+import com.sararahmani.site.backend.dto.AppointmentFilter;
+import com.sararahmani.site.backend.dto.AppointmentResponse;
+import com.sararahmani.site.backend.dto.CursorPage;
+import com.sararahmani.site.backend.entity.Appointment;
+import com.sararahmani.site.backend.entity.Role;
+import com.sararahmani.site.backend.entity.User;
+import com.sararahmani.site.backend.repository.AppointmentRepository;
+import com.sararahmani.site.backend.repository.UserRepository;
+import com.sararahmani.site.backend.service.AppointmentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Les listes de RDV doivent coûter une seule requête, quel que soit le nombre de patients
+@SpringBootTest
+@ActiveProfiles("test")
+class AppointmentQueryCountIntegrationTest {
+
+    private static final AppointmentFilter AUCUN_FILTRE = new AppointmentFilter(null, null, null, null);
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<User> patients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository.deleteAll();
+        userRepository.deleteAll();
+        patients.clear();
+
+        LocalDateTime base = LocalDateTime.now().plusDays(3).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        for (int i = 0; i < 3; i++) {
+            User patient = userRepository.save(User.builder()
+                    .email("patient" + i + "@example.com")
+                    .password("hash")
+                    .nom("Nom" + i)
+                    .prenom("Prenom" + i)
+                    .role(Role.PATIENT)
+                    .enabled(true)
+                    .build());
+            patients.add(patient);
+            for (int j = 0; j < 4; j++) {
+                appointmentRepository.save(Appointment.builder()
+                        .dateHeure(base.plusDays(i * 4L + j))
+                        .motif("RDV " + i + "-" + j)
+                        .patient(patient)
+                        .build());
+            }
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Mes RDV - une seule requete")
+    void getMyAppointments_SingleQuery() {
+        List<AppointmentResponse> responses = appointmentService.getMyAppointments(patients.get(1).getId());
+
+        assertThat(responses).hasSize(4);
+        assertThat(responses).allMatch(r -> r.patientNom().equals("Nom1"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Liste admin - une seule requete pour 12 RDV de 3 patients")
+    void getAllAppointments_SingleQuery() {
+        CursorPage<AppointmentResponse> page = appointmentService.getAllAppointments(AUCUN_FILTRE, null, 50);
+
+        assertThat(page.items()).hasSize(12);
+        assertThat(page.items()).extracting(AppointmentResponse::patientNom).contains("Nom0", "Nom1", "Nom2");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Export admin - une seule requete")
+    void exportAppointments_SingleQuery() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        appointmentService.exportAppointments(AUCUN_FILTRE, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(12);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -5,9 +5,12 @@ import com.sararahmani.site.backend.dto.AuthRequest;
 import com.sararahmani.site.backend.dto.RegisterRequest;
 import com.sararahmani.site.backend.entity.Role;
 import com.sararahmani.site.backend.entity.User;
+import com.sararahmani.site.backend.entity.OutboxMessage;
 import com.sararahmani.site.backend.repository.EmailConfirmationRepository;
+import com.sararahmani.site.backend.repository.OutboxMessageRepository;
 import com.sararahmani.site.backend.repository.UserRepository;
 import com.sararahmani.site.backend.service.MailService;
+import com.sararahmani.site.backend.service.TokenHasher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -17,6 +20,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -24,8 +28,6 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.doNothing;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -47,6 +49,9 @@ class AuthIntegrationTest {
     @Autowired
     private EmailConfirmationRepository emailConfirmationRepository;
 
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -56,8 +61,8 @@ class AuthIntegrationTest {
     @BeforeEach
     void setUp() {
         emailConfirmationRepository.deleteAll();
+        outboxMessageRepository.deleteAll();
         userRepository.deleteAll();
-        doNothing().when(mailService).sendConfirmationEmail(anyString(), anyString());
     }
 
     @Nested
@@ -89,6 +94,15 @@ class AuthIntegrationTest {
 
             // Verifier que le token de confirmation email est cree
             assertThat(emailConfirmationRepository.findAll()).hasSize(1);
+
+            // Verifier que l'email de confirmation est en attente dans l'outbox
+            assertThat(outboxMessageRepository.findAll())
+                    .singleElement()
+                    .satisfies(message -> {
+                        assertThat(message.getType()).isEqualTo(OutboxMessage.Type.EMAIL_CONFIRMATION);
+                        assertThat(message.getRecipient()).isEqualTo("nouveau@example.com");
+                        assertThat(message.getStatus()).isEqualTo(OutboxMessage.Status.PENDING);
+                    });
         }
 
         @Test
@@ -168,6 +182,51 @@ class AuthIntegrationTest {
                     .andExpect(jsonPath("$.prenom").value("User"));
         }
 
+        @Test
+        @DisplayName("POST /api/auth/login - email insensible a la casse")
+        void login_EmailCaseInsensitive() throws Exception {
+            userRepository.save(User.builder()
+                    .email("Marie.Dupont@Example.com")
+                    .password(passwordEncoder.encode("password123"))
+                    .nom("Dupont")
+                    .prenom("Marie")
+                    .role(Role.PATIENT)
+                    .enabled(true)
+                    .build());
+
+            AuthRequest request = new AuthRequest("MARIE.dupont@example.COM", "password123");
+
+            mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.email").value("marie.dupont@example.com"));
+        }
+
+        @Test
+        @DisplayName("POST /api/auth/login - ancien hash BCrypt sans prefixe reencode au cout courant")
+        void login_LegacyHash_Rehashed() throws Exception {
+            User user = User.builder()
+                    .email("legacy@example.com")
+                    .password(new BCryptPasswordEncoder(5).encode("password123"))
+                    .nom("Legacy")
+                    .prenom("User")
+                    .role(Role.PATIENT)
+                    .enabled(true)
+                    .build();
+            userRepository.save(user);
+
+            mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new AuthRequest("legacy@example.com", "password123"))))
+                    .andExpect(status().isOk());
+
+            User rehashed = userRepository.findByEmail("legacy@example.com").orElseThrow();
+            assertThat(rehashed.getPassword()).startsWith("{bcrypt}$2a$04$");
+            assertThat(rehashed.getTokenVersion()).isZero();
+            assertThat(passwordEncoder.matches("password123", rehashed.getPassword())).isTrue();
+        }
+
         @Test
         @DisplayName("POST /api/auth/login - mauvais mot de passe")
         void login_WrongPassword() throws Exception {
@@ -274,8 +333,10 @@ class AuthIntegrationTest {
                             .content(objectMapper.writeValueAsString(request)))
                     .andExpect(status().isOk());
 
-            // Recuperer le token de confirmation
-            String token = emailConfirmationRepository.findAll().get(0).getToken();
+            // Recuperer le token de confirmation : seule son empreinte est en base, le token part dans l'email
+            String token = outboxMessageRepository.findAll().get(0).getPayload();
+            assertThat(emailConfirmationRepository.findAll().get(0).getTokenHash())
+                    .isEqualTo(TokenHasher.hash(token));
 
             // Confirmer l'email
             mockMvc.perform(get("/api/auth/confirm-email")
@@ -296,4 +357,46 @@ class AuthIntegrationTest {
                     .andExpect(status().isBadRequest());
         }
     }
+
+    @Nested
+    @DisplayName("Tests d'integration - Revocation JWT")
+    class TokenRevocationIntegrationTests {
+
+        private String login(String email, String password) throws Exception {
+            MvcResult result = mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new AuthRequest(email, password))))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            return objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+        }
+
+        @Test
+        @DisplayName("Le JWT est accepte sans rechargement puis refuse apres changement de tokenVersion")
+        void token_RevokedWhenTokenVersionChanges() throws Exception {
+            User user = User.builder()
+                    .email("revoke@example.com")
+                    .password(passwordEncoder.encode("password123"))
+                    .nom("Revoke")
+                    .prenom("User")
+                    .role(Role.PATIENT)
+                    .enabled(true)
+                    .build();
+            userRepository.save(user);
+
+            String token = login("revoke@example.com", "password123");
+
+            mockMvc.perform(get("/api/appointments/me")
+                            .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+
+            User saved = userRepository.findByEmail("revoke@example.com").orElseThrow();
+            saved.setTokenVersion(saved.getTokenVersion() + 1);
+            userRepository.save(saved);
+
+            mockMvc.perform(get("/api/appointments/me")
+                            .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
 }
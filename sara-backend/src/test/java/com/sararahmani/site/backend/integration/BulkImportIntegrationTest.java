@@ -0,0 +1,175 @@
+package com.sararahmani.site.backend.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sararahmani.site.backend.dto.AuthRequest;
+import com.sararahmani.site.backend.entity.Appointment;
+import com.sararahmani.site.backend.entity.Role;
+import com.sararahmani.site.backend.entity.User;
+import com.sararahmani.site.backend.repository.AppointmentRepository;
+import com.sararahmani.site.backend.repository.PatientRepository;
+import com.sararahmani.site.backend.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Imports en masse : lecture en flux, lots de chunk-size enregistrements, INSERT en batch JDBC
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = "imports.chunk-size=100")
+class BulkImportIntegrationTest {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String adminToken;
+    private String patientToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        userRepository.deleteAll();
+        for (Role role : Role.values()) {
+            userRepository.save(User.builder()
+                    .email(role.name().toLowerCase() + "@example.com")
+                    .password(passwordEncoder.encode("password123"))
+                    .nom(role.name())
+                    .prenom("Import")
+                    .role(role)
+                    .enabled(true)
+                    .build());
+        }
+        adminToken = login("admin@example.com");
+        patientToken = login("patient@example.com");
+    }
+
+    private String login(String email) throws Exception {
+        String response = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequest(email, "password123"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("token").asText();
+    }
+
+    @Test
+    @DisplayName("POST /api/patients/bulk - CSV importe par lots, INSERT groupes, lignes invalides signalees")
+    void importPatientsCsv_BatchedInserts() throws Exception {
+        StringBuilder csv = new StringBuilder("nom;prenom;email;telephone\n");
+        for (int i = 0; i < 250; i++) {
+            csv.append("Nom").append(i).append(";\"Prenom; ").append(i).append("\";patient")
+                    .append(i).append("@legacy.test;0600000").append(i).append('\n');
+        }
+        csv.append(";SansNom;sans-nom@legacy.test;\n");
+        csv.append("Double;Email;patient0@legacy.test;\n");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/api/patients/bulk")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(TEXT_CSV)
+                        .content(csv.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(250))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.errors[0].record").value(252))
+                .andExpect(jsonPath("$.errors[1].message").value(containsString("patient0@legacy.test")));
+
+        assertThat(patientRepository.count()).isEqualTo(250);
+        assertThat(patientRepository.findByEmail("patient7@legacy.test").orElseThrow().getPrenom()).isEqualTo("Prenom; 7");
+        // 250 INSERT : 3 lots de 100 (chunk) découpés en batchs de 50, pas un aller-retour par ligne
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(250);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(30);
+    }
+
+    @Test
+    @DisplayName("POST /api/appointments/bulk - tableau JSON, patient resolu par email, statut et duree")
+    void importAppointmentsJson() throws Exception {
+        LocalDateTime past = LocalDateTime.now().minusYears(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        List<Map<String, Object>> records = List.of(
+                Map.of("patientEmail", "patient@example.com", "dateHeure", past.toString(),
+                        "motif", "Historique", "status", "completed", "dureeMinutes", 90),
+                Map.of("patientEmail", "inconnu@example.com", "dateHeure", past.plusDays(1).toString(), "motif", "X"),
+                Map.of("patientEmail", "patient@example.com", "dateHeure", "hier", "motif", "X")
+        );
+
+        mockMvc.perform(post("/api/appointments/bulk")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(records)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.errors[0].record").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value(containsString("patient inconnu")))
+                .andExpect(jsonPath("$.errors[1].message").value("dateHeure invalide : hier"));
+
+        Appointment imported = appointmentRepository.findAll().get(0);
+        assertThat(imported.getStatus()).isEqualTo(Appointment.Status.COMPLETED);
+        assertThat(imported.getDureeMinutes()).isEqualTo(90);
+        assertThat(imported.getDateHeure()).isEqualTo(past);
+    }
+
+    @Test
+    @DisplayName("POST /api/patients/bulk - JSON mal forme : 400 avec le nombre deja importe")
+    void importPatientsJson_Malformed() throws Exception {
+        mockMvc.perform(post("/api/patients/bulk")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"nom\":\"A\",\"prenom\":\"B\",\"email\":\"a@legacy.test\"}, {\"nom\": "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("JSON invalide (0 enregistrements")));
+    }
+
+    @Test
+    @DisplayName("POST /api/appointments/bulk - reserve aux administrateurs")
+    void importAppointments_PatientForbidden() throws Exception {
+        mockMvc.perform(post("/api/appointments/bulk")
+                        .header("Authorization", "Bearer " + patientToken)
+                        .contentType(TEXT_CSV)
+                        .content("patientEmail,dateHeure,motif\n"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,33 @@
+package com.sararahmani.site.backend.integration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "datasource.pool.connections-per-core=2")
+class DataSourcePoolIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Pool Hikari fixe de coeurs x connections-per-core + 1 connexions")
+    void poolSize_DerivedFromCores() {
+        int expected = Runtime.getRuntime().availableProcessors() * 2 + 1;
+
+        HikariDataSource hikari = (HikariDataSource) dataSource;
+        assertThat(hikari.getMaximumPoolSize()).isEqualTo(expected);
+        assertThat(hikari.getMinimumIdle()).isEqualTo(expected);
+        assertThat(hikari.getPoolName()).isEqualTo("sara");
+    }
+}
@@ -0,0 +1,118 @@
+package com.sararahmani.site.backend.integration;
+
+import com.sararahmani.site.backend.entity.EmailConfirmation;
+import com.sararahmani.site.backend.entity.OutboxMessage;
+import com.sararahmani.site.backend.entity.PasswordResetToken;
+import com.sararahmani.site.backend.repository.EmailConfirmationRepository;
+import com.sararahmani.site.backend.repository.OutboxMessageRepository;
+import com.sararahmani.site.backend.repository.PasswordResetTokenRepository;
+import com.sararahmani.site.backend.service.ExpiredTokenPurger;
+import com.sararahmani.site.backend.service.TokenHasher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ExpiredTokenPurgeIntegrationTest {
+
+    @Autowired
+    private ExpiredTokenPurger purger;
+
+    @Autowired
+    private EmailConfirmationRepository emailConfirmationRepository;
+
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        emailConfirmationRepository.deleteAll();
+        passwordResetTokenRepository.deleteAll();
+        outboxMessageRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("DELETE ... LIMIT - supprime au plus un lot")
+    void deleteExpiredBefore_IsBounded() {
+        for (int i = 0; i < 3; i++) {
+            emailConfirmationRepository.save(confirmation("old-" + i, now.minusDays(30)));
+        }
+
+        assertThat(emailConfirmationRepository.deleteExpiredBefore(now, 2)).isEqualTo(2);
+        assertThat(emailConfirmationRepository.deleteExpiredBefore(now, 2)).isEqualTo(1);
+        assertThat(emailConfirmationRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Purge - tokens expires au-dela de la retention supprimes, les autres conserves")
+    void purge_KeepsTokensWithinRetention() {
+        emailConfirmationRepository.save(confirmation("expire-ancien", now.minusDays(30)));
+        emailConfirmationRepository.save(confirmation("expire-recent", now.minusHours(1)));
+        EmailConfirmation used = confirmation("utilise-valide", now.plusHours(12));
+        used.setUsed(true);
+        emailConfirmationRepository.save(used);
+        passwordResetTokenRepository.save(PasswordResetToken.builder()
+                .tokenHash(TokenHasher.hash("reset-ancien")).email("a@example.com").expiresAt(now.minusDays(30)).build());
+        passwordResetTokenRepository.save(PasswordResetToken.builder()
+                .tokenHash(TokenHasher.hash("reset-valide")).email("a@example.com").expiresAt(now.plusHours(1)).build());
+
+        purger.purge();
+
+        assertThat(emailConfirmationRepository.findAll())
+                .extracting(EmailConfirmation::getTokenHash)
+                .containsExactlyInAnyOrder(TokenHasher.hash("expire-recent"), TokenHasher.hash("utilise-valide"));
+        assertThat(passwordResetTokenRepository.findAll())
+                .extracting(PasswordResetToken::getTokenHash)
+                .containsExactly(TokenHasher.hash("reset-valide"));
+    }
+
+    @Test
+    @DisplayName("Outbox - abandon sans token, purge des emails termes au-dela de la retention")
+    void purge_RemovesFinishedOutboxMessages() {
+        OutboxMessage abandoned = outboxMessageRepository.save(outbox(now));
+        outboxMessageRepository.markAbandoned(abandoned.getId(), now.minusDays(30), "SMTP indisponible");
+        OutboxMessage sentOld = outboxMessageRepository.save(outbox(now));
+        outboxMessageRepository.markSent(sentOld.getId(), now.minusDays(30));
+        OutboxMessage sentRecent = outboxMessageRepository.save(outbox(now));
+        outboxMessageRepository.markSent(sentRecent.getId(), now.minusHours(1));
+        OutboxMessage pendingOld = outboxMessageRepository.save(outbox(now.minusDays(30)));
+
+        assertThat(outboxMessageRepository.findById(abandoned.getId()).orElseThrow().getPayload()).isNull();
+
+        purger.purge();
+
+        assertThat(outboxMessageRepository.findAll())
+                .extracting(OutboxMessage::getId)
+                .containsExactlyInAnyOrder(sentRecent.getId(), pendingOld.getId());
+    }
+
+    private static OutboxMessage outbox(LocalDateTime nextAttemptAt) {
+        return OutboxMessage.builder()
+                .type(OutboxMessage.Type.PASSWORD_RESET)
+                .recipient("a@example.com")
+                .payload("token-brut")
+                .nextAttemptAt(nextAttemptAt)
+                .build();
+    }
+
+    private static EmailConfirmation confirmation(String token, LocalDateTime expiresAt) {
+        return EmailConfirmation.builder()
+                .tokenHash(TokenHasher.hash(token))
+                .email("a@example.com")
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
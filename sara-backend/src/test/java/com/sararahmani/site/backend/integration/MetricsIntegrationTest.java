@@ -0,0 +1,117 @@
+package com.sararahmani.site.backend.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sararahmani.site.backend.dto.AuthRequest;
+import com.sararahmani.site.backend.entity.Role;
+import com.sararahmani.site.backend.entity.User;
+import com.sararahmani.site.backend.repository.AppointmentRepository;
+import com.sararahmani.site.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Les métriques des couches service, repository, pool et filtre JWT sont exposées à Prometheus
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository.deleteAll();
+        userRepository.deleteAll();
+        userRepository.save(User.builder()
+                .email("metrics@example.com")
+                .password(passwordEncoder.encode("password123"))
+                .nom("Metrics")
+                .prenom("Patient")
+                .role(Role.PATIENT)
+                .enabled(true)
+                .build());
+        userRepository.save(User.builder()
+                .email("metrics-admin@example.com")
+                .password(passwordEncoder.encode("password123"))
+                .nom("Metrics")
+                .prenom("Admin")
+                .role(Role.ADMIN)
+                .enabled(true)
+                .build());
+    }
+
+    private String login(String email) throws Exception {
+        String login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequest(email, "password123"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(login).get("token").asText();
+    }
+
+    @Test
+    @DisplayName("GET /actuator/prometheus - timers service, JWT, repositories, Hikari et caches")
+    void prometheus_ExposesApplicationMetrics() throws Exception {
+        String token = login("metrics@example.com");
+
+        mockMvc.perform(get("/api/appointments/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus")
+                        .header("Authorization", "Bearer " + login("metrics-admin@example.com")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("sara_service_seconds_count{application=\"sara-backend\",class=\"com.sararahmani.site.backend.service.AuthService\"")
+                .contains("sara_service_seconds_bucket")
+                .contains("security_jwt_verify_seconds_count{application=\"sara-backend\",outcome=\"valid\"")
+                .contains("spring_data_repository_invocations_seconds_count")
+                .contains("hikaricp_connections_active{application=\"sara-backend\",pool=\"sara\"")
+                .contains("hikaricp_connections_pending")
+                .contains("hikaricp_connections_acquire_seconds_bucket")
+                .contains("cache_gets_total{application=\"sara-backend\",cache=\"jwt.verified\"")
+                .contains("cache_gets_total{application=\"sara-backend\",cache=\"sara.user\"")
+                .contains("cache_evictions_total{application=\"sara-backend\",cache=\"sara.patient\"");
+    }
+
+    @Test
+    @DisplayName("GET /actuator/prometheus - reserve aux administrateurs, health reste public")
+    void prometheus_RequiresAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus")
+                        .header("Authorization", "Bearer " + login("metrics@example.com")))
+                .andExpect(status().isForbidden());
+        // Statut selon les composants (SMTP absent en test : 503), mais jamais refusé
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(result -> assertThat(result.getResponse().getStatus()).isNotIn(401, 403));
+    }
+}
@@ -0,0 +1,217 @@
+package com.sararahmani.site.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sararahmani.site.backend.dto.AuthRequest;
+import com.sararahmani.site.backend.dto.PatientDto;
+import com.sararahmani.site.backend.entity.Patient;
+import com.sararahmani.site.backend.entity.Role;
+import com.sararahmani.site.backend.entity.User;
+import com.sararahmani.site.backend.repository.AppointmentRepository;
+import com.sararahmani.site.backend.repository.PatientRepository;
+import com.sararahmani.site.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// GET /api/patients : pages bornées, curseur, recherche par préfixe ; HEAD : nombre total
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PatientIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        userRepository.deleteAll();
+        userRepository.save(User.builder()
+                .email("staff@example.com")
+                .password(passwordEncoder.encode("password123"))
+                .nom("Staff")
+                .prenom("Cabinet")
+                .role(Role.ADMIN)
+                .enabled(true)
+                .build());
+        String login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequest("staff@example.com", "password123"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        token = objectMapper.readTree(login).get("token").asText();
+
+        List<Patient> patients = new ArrayList<>();
+        for (String[] row : new String[][]{
+                {"Dupont", "Marie", "marie.dupont@example.com"},
+                {"Dupont", "Jean", "jean.dupont@example.com"},
+                {"Durand", "Paul", "paul.durand@example.com"},
+                {"Martin", "Duc", "duc.martin@example.com"},
+                {"Bernard", "Lucie", "lucie_b@example.com"}}) {
+            patients.add(Patient.builder().nom(row[0]).prenom(row[1]).email(row[2]).build());
+        }
+        patientRepository.saveAll(patients);
+    }
+
+    @Test
+    @DisplayName("GET /api/patients - pages triees par nom puis id, curseur jusqu'a la derniere page")
+    void findPage_CursorPagination() throws Exception {
+        List<String> noms = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/api/patients").param("size", "2").header("Authorization", "Bearer " + token);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items.length()").value(lessThanOrEqualTo(2)))
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(item -> noms.add(item.get("nom").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(noms).containsExactly("Bernard", "Dupont", "Dupont", "Durand", "Martin");
+    }
+
+    @Test
+    @DisplayName("GET /api/patients?q= - prefixe sur nom, prenom ou email, tri par prenom")
+    void findPage_PrefixSearch() throws Exception {
+        mockMvc.perform(get("/api/patients")
+                        .param("q", "Du")
+                        .param("sort", "prenom")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(4)))
+                .andExpect(jsonPath("$.items[0].prenom").value("Duc"))
+                .andExpect(jsonPath("$.items[1].prenom").value("Jean"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        // Caractères joker de LIKE pris littéralement
+        mockMvc.perform(get("/api/patients")
+                        .param("q", "lucie_")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].nom").value("Bernard"));
+    }
+
+    @Test
+    @DisplayName("GET /api/patients - tri ou curseur invalide : 400")
+    void findPage_InvalidParameters() throws Exception {
+        mockMvc.perform(get("/api/patients").param("sort", "telephone").header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/patients").param("cursor", "%%%").header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("HEAD /api/patients - nombre total en X-Total-Count, sans corps")
+    void count_TotalCountHeader() throws Exception {
+        mockMvc.perform(head("/api/patients").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "5"))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(head("/api/patients").param("q", "Dupont").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "2"));
+    }
+
+    @Test
+    @DisplayName("GET /api/patients/search - patient cree visible aussitot, sans accents ni faute")
+    void search_IndexUpdatedOnCreate() throws Exception {
+        mockMvc.perform(post("/api/patients")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new PatientDto(null, "Lefèvre", "Hélène", "helene.lefevre@example.com", "06 12 34 56 78"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/patients/search").param("q", "helene lefvre").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nom").value("Lefèvre"));
+        mockMvc.perform(get("/api/patients/search").param("q", "06 12 34").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email").value("helene.lefevre@example.com"));
+        // Patients du setUp (saveAll) indexés eux aussi
+        mockMvc.perform(get("/api/patients/search").param("q", "dupont").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    @DisplayName("Liste, nombre, recherche et fiche - refuses a un patient")
+    void patientRole_Forbidden() throws Exception {
+        userRepository.save(User.builder()
+                .email("patient@example.com")
+                .password(passwordEncoder.encode("password123"))
+                .nom("Patient")
+                .prenom("Simple")
+                .role(Role.PATIENT)
+                .enabled(true)
+                .build());
+        String login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequest("patient@example.com", "password123"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String patientToken = "Bearer " + objectMapper.readTree(login).get("token").asText();
+        Long id = patientRepository.findAll().get(0).getId();
+
+        mockMvc.perform(get("/api/patients").header("Authorization", patientToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(head("/api/patients").header("Authorization", patientToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/patients/search").param("q", "dupont").header("Authorization", patientToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/patients/{id}", id).header("Authorization", patientToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("GET /api/patients - authentification requise")
+    void findPage_Unauthenticated() throws Exception {
+        mockMvc.perform(get("/api/patients"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,49 @@
+package com.sararahmani.site.backend.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Tomcat réel (RemoteIpValve) : derrière un proxy interne, la limite par IP suit X-Forwarded-For
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "security.rate-limit.enabled=true",
+        "security.rate-limit.routes.reset-password.per-ip.capacity=1"
+})
+class RateLimitForwardedHeadersIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("POST /api/auth/reset-password - un seau par client derriere le proxy")
+    void resetPassword_LimitedPerForwardedClient() throws Exception {
+        assertThat(resetPassword("203.0.113.10")).isEqualTo(400);
+        assertThat(resetPassword("203.0.113.10")).isEqualTo(429);
+
+        // Même proxy (loopback), autre client : seau distinct
+        assertThat(resetPassword("203.0.113.20")).isEqualTo(400);
+    }
+
+    private int resetPassword(String clientIp) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/reset-password"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", clientIp)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"token\":\"inconnu\",\"newPassword\":\"password123\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,73 @@
+package com.sararahmani.site.backend.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "security.rate-limit.enabled=true",
+        "security.rate-limit.routes.forgot-password.per-ip.capacity=3",
+        "security.rate-limit.routes.forgot-password.per-email.capacity=2",
+        "security.rate-limit.routes.reset-password.per-ip.capacity=1"
+})
+class RateLimitIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("POST /api/auth/forgot-password - limite par email puis par IP, corps transmis au controleur")
+    void forgotPassword_LimitedPerEmailThenPerIp() throws Exception {
+        forgotPassword("limite@example.com", "10.0.0.1").andExpect(status().isOk());
+        // Casse et espaces ignorés : même clé
+        forgotPassword(" Limite@Example.com", "10.0.0.1").andExpect(status().isOk());
+
+        forgotPassword("limite@example.com", "10.0.0.1")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.message").value(containsString("Trop de tentatives")));
+
+        // Le seau par IP a encore consommé un jeton pour la requête refusée : il est vide
+        forgotPassword("autre@example.com", "10.0.0.1").andExpect(status().isTooManyRequests());
+        forgotPassword("autre@example.com", "10.0.0.2").andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("POST /api/auth/reset-password - limite par IP uniquement")
+    void resetPassword_LimitedPerIp() throws Exception {
+        String body = "{\"token\":\"inconnu\",\"newPassword\":\"password123\"}";
+
+        mockMvc.perform(post("/api/auth/reset-password")
+                        .with(request -> { request.setRemoteAddr("10.0.1.1"); return request; })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/auth/reset-password")
+                        .with(request -> { request.setRemoteAddr("10.0.1.1"); return request; })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    private ResultActions forgotPassword(String email, String ip) throws Exception {
+        return mockMvc.perform(post("/api/auth/forgot-password")
+                .with(request -> { request.setRemoteAddr(ip); return request; })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\"}"));
+    }
+}
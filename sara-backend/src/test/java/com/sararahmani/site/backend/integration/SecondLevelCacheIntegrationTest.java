@@ -0,0 +1,144 @@
+package com.sararahmani.site.backend.integration;
+
+import com.sararahmani.site.backend.entity.Patient;
+import com.sararahmani.site.backend.entity.Role;
+import com.sararahmani.site.backend.entity.User;
+import com.sararahmani.site.backend.repository.AppointmentRepository;
+import com.sararahmani.site.backend.repository.EmailConfirmationRepository;
+import com.sararahmani.site.backend.repository.PatientRepository;
+import com.sararahmani.site.backend.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Cache de second niveau : User par id et par email, Patient par id, sans requête SQL une fois chargés
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private EmailConfirmationRepository emailConfirmationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        userRepository.deleteAll();
+        user = userRepository.save(User.builder()
+                .email("cache@example.com")
+                .password("password")
+                .nom("Cache")
+                .prenom("User")
+                .role(Role.PATIENT)
+                .enabled(true)
+                .build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("findByEmail - email puis entite servis par le cache, aucune requete")
+    void findByEmail_ServedFromCache() {
+        assertThat(userRepository.findByEmail("cache@example.com")).get()
+                .extracting(User::getId).isEqualTo(user.getId());
+        assertThat(userRepository.findByEmail("cache@example.com")).isPresent();
+
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("findByEmail - email modifie : l'ancien email ne resout plus")
+    void findByEmail_EmailChanged() {
+        user.setEmail("nouveau@example.com");
+        userRepository.save(user);
+
+        assertThat(userRepository.findByEmail("cache@example.com")).isEmpty();
+        assertThat(userRepository.findByEmail("nouveau@example.com")).get()
+                .extracting(User::getId).isEqualTo(user.getId());
+    }
+
+    @Test
+    @DisplayName("findByEmail - email saisi avec des majuscules resolu par le cache")
+    void findByEmail_CaseInsensitive() {
+        assertThat(userRepository.findByEmail(" Cache@Example.COM")).get()
+                .extracting(User::getId).isEqualTo(user.getId());
+
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findByEmailUncached - lit la base, pas la copie en cache modifiee par une autre instance")
+    void findByEmailUncached_BypassesCache() {
+        // Réinitialisation faite ailleurs : ni l'entité ni le cache de cette instance ne sont notifiés
+        jdbcTemplate.update("UPDATE users SET password = 'nouveau', token_version = token_version + 1 WHERE id = ?",
+                user.getId());
+
+        assertThat(userRepository.findByEmail("cache@example.com")).get()
+                .extracting(User::getTokenVersion).isEqualTo(0);
+        assertThat(userRepository.findByEmailUncached("cache@example.com")).get()
+                .satisfies(fresh -> {
+                    assertThat(fresh.getPassword()).isEqualTo("nouveau");
+                    assertThat(fresh.getTokenVersion()).isEqualTo(1);
+                });
+    }
+
+    @Test
+    @DisplayName("findById - Patient servi par le cache apres le premier chargement")
+    void patientFindById_ServedFromCache() {
+        Patient patient = patientRepository.save(Patient.builder()
+                .nom("Dupont")
+                .prenom("Jean")
+                .email("jean.dupont@example.com")
+                .build());
+        statistics.clear();
+
+        assertThat(patientRepository.findById(patient.getId())).isPresent();
+        assertThat(patientRepository.findById(patient.getId())).isPresent();
+
+        assertThat(statistics.getDomainDataRegionStatistics("sara.patient").getHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Purge native des jetons - les regions User et Patient ne sont pas videes")
+    void nativeDelete_KeepsEntityRegions() {
+        emailConfirmationRepository.deleteExpiredBefore(LocalDateTime.now(), 100);
+        statistics.clear();
+
+        assertThat(userRepository.findById(user.getId())).isPresent();
+
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
@@ -0,0 +1,47 @@
+package com.sararahmani.site.backend.integration;
+
+import com.sararahmani.site.backend.config.SequenceMigration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Ancien schéma (ids AUTO_INCREMENT) : séquences créées au-delà des ids existants, sur une base H2 en mode MariaDB
+class SequenceMigrationTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:sequence-migration;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("CREATE TABLE patients (id BIGINT AUTO_INCREMENT PRIMARY KEY, nom VARCHAR(255))");
+        for (int i = 0; i < 120; i++) {
+            jdbc.update("INSERT INTO patients (nom) VALUES (?)", "Nom" + i);
+        }
+        jdbc.execute("CREATE TABLE appointments (id BIGINT AUTO_INCREMENT PRIMARY KEY)");
+    }
+
+    @Test
+    @DisplayName("Sequence creee apres le plus grand id, tables absentes ignorees, sequence existante conservee")
+    void migrate_StartsAfterExistingIds() throws Exception {
+        new SequenceMigration(dataSource).afterPropertiesSet();
+
+        // Borne haute du premier bloc de 50 : ids 121 à 170
+        assertThat(jdbc.queryForObject("SELECT NEXT VALUE FOR patients_seq", Long.class)).isEqualTo(170);
+        assertThat(jdbc.queryForObject("SELECT NEXT VALUE FOR appointments_seq", Long.class)).isEqualTo(50);
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.sequences WHERE sequence_name = 'users_seq'",
+                Integer.class)).isZero();
+
+        // Deuxième démarrage : la séquence n'est pas recréée
+        new SequenceMigration(dataSource).afterPropertiesSet();
+        assertThat(jdbc.queryForObject("SELECT NEXT VALUE FOR patients_seq", Long.class)).isEqualTo(220);
+    }
+}
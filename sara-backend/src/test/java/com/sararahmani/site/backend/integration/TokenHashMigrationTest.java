@@ -0,0 +1,59 @@
+package com.sararahmani.site.backend.integration;
+
+import com.sararahmani.site.backend.config.TokenHashMigration;
+import com.sararahmani.site.backend.service.TokenHasher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Ancien schéma (token VARCHAR en clair) migré vers token_hash, sur une base H2 en mode MariaDB
+class TokenHashMigrationTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:token-migration;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP ALL OBJECTS");
+        for (String table : new String[]{"email_confirmations", "password_reset_tokens"}) {
+            jdbc.execute("CREATE TABLE " + table + " (id BIGINT PRIMARY KEY, token VARCHAR(255) NOT NULL UNIQUE, "
+                    + "email VARCHAR(255) NOT NULL, expires_at TIMESTAMP NOT NULL, used BOOLEAN NOT NULL)");
+        }
+        jdbc.update("INSERT INTO email_confirmations VALUES (1, 'lien-en-cours', 'a@example.com', CURRENT_TIMESTAMP, FALSE)");
+    }
+
+    @Test
+    @DisplayName("Tokens en clair haches dans token_hash, ancienne colonne supprimee")
+    void migrate_HashesExistingTokens() throws Exception {
+        new TokenHashMigration(dataSource).afterPropertiesSet();
+
+        byte[] hash = jdbc.queryForObject("SELECT token_hash FROM email_confirmations WHERE id = 1", byte[].class);
+        assertThat(hash).isEqualTo(TokenHasher.hash("lien-en-cours"));
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE table_name = 'email_confirmations' AND column_name = 'token'",
+                Integer.class)).isZero();
+
+        // Deuxième démarrage : rien à faire
+        new TokenHashMigration(dataSource).afterPropertiesSet();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM password_reset_tokens", Integer.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("Outbox - token en clair efface des emails envoyes ou abandonnes, conserve pour ceux a envoyer")
+    void migrate_RedactsFinishedOutboxPayloads() throws Exception {
+        jdbc.execute("CREATE TABLE outbox (id BIGINT PRIMARY KEY, status VARCHAR(20) NOT NULL, payload VARCHAR(255))");
+        jdbc.update("INSERT INTO outbox VALUES (1, 'FAILED', 'abandonne'), (2, 'PENDING', 'a-envoyer'), (3, 'SENT', NULL)");
+
+        new TokenHashMigration(dataSource).afterPropertiesSet();
+
+        assertThat(jdbc.queryForList("SELECT payload FROM outbox ORDER BY id", String.class))
+                .containsExactly(null, "a-envoyer", null);
+    }
+}
@@ -0,0 +1,50 @@
+package com.sararahmani.site.backend.integration;
+
+import com.sararahmani.site.backend.config.UserEmailMigration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Emails existants en casse mixte : passés en minuscules, sur une base H2 en mode MariaDB
+class UserEmailMigrationTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:user-email-migration;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    @DisplayName("Emails en majuscules normalises, doublon de casse conserve")
+    void migrate_LowerCasesEmails() throws Exception {
+        jdbc.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(255) NOT NULL UNIQUE)");
+        jdbc.update("INSERT INTO users (id, email) VALUES (1, 'Marie.Dupont@Example.com')");
+        jdbc.update("INSERT INTO users (id, email) VALUES (2, 'deja@example.com')");
+        jdbc.update("INSERT INTO users (id, email) VALUES (3, 'jean@example.com')");
+        jdbc.update("INSERT INTO users (id, email) VALUES (4, 'Jean@Example.com')");
+
+        new UserEmailMigration(dataSource).afterPropertiesSet();
+
+        assertThat(jdbc.queryForList("SELECT email FROM users ORDER BY id", String.class)).containsExactly(
+                "marie.dupont@example.com", "deja@example.com", "jean@example.com", "Jean@Example.com");
+    }
+
+    @Test
+    @DisplayName("Base neuve - table users absente ignoree")
+    void migrate_NoTable() throws Exception {
+        new UserEmailMigration(dataSource).afterPropertiesSet();
+
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'users' AND table_schema = 'public'",
+                Integer.class)).isZero();
+    }
+}
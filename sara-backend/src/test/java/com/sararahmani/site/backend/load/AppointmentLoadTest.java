@@ -0,0 +1,329 @@
+package com.sararahmani.site.backend.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sararahmani.site.backend.entity.Appointment;
+import com.sararahmani.site.backend.entity.Role;
+import com.sararahmani.site.backend.entity.User;
+import com.sararahmani.site.backend.repository.AppointmentRepository;
+import com.sararahmani.site.backend.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Harnais de charge de bout en bout : application démarrée sur un vrai port, base H2 en mode MariaDB,
+// N patients et M RDV pré-chargés, charge mixte jouée par des clients HTTP concurrents.
+// Exclu du build par défaut : mvn -Pload-test test [-Dload.users=... -Dload.concurrency=...]
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "load"})
+class AppointmentLoadTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 50);
+    private static final int APPOINTMENTS = Integer.getInteger("load.appointments", 500);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 16);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 5);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 30);
+
+    private static final String PASSWORD = "password123";
+    private static final String ADMIN_EMAIL = "admin@load.test";
+    private static final int[] SLOT_HOURS = {9, 10, 11, 14, 15, 16, 17};
+    // Réservations de la charge : assez loin pour rester annulables (> 48h)
+    private static final int FIRST_BOOKING_DAY = 3;
+    private static final int BOOKING_DAYS = 365;
+
+    // Répartition de la charge (poids relatifs)
+    private enum Endpoint {
+        LOGIN(10), CREATE_APPOINTMENT(20), MY_APPOINTMENTS(40), CANCEL_APPOINTMENT(10), ADMIN_LIST(20);
+
+        private final int weight;
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    // Profil "virtual" : -Dspring.profiles.include=virtual (effectif sur un JDK 21)
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    @DisplayName("Charge mixte - latences p50/p99 par endpoint")
+    void mixedWorkload() throws Exception {
+        List<User> patients = seed();
+        String adminToken = login(ADMIN_EMAIL);
+
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        List<Future<Worker>> futures = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            Worker worker = new Worker(patients.get(i % patients.size()).getEmail(), adminToken, warmupEnd, end);
+            futures.add(executor.submit(() -> {
+                worker.run();
+                return worker;
+            }));
+        }
+
+        Map<Endpoint, List<Long>> latencies = new EnumMap<>(Endpoint.class);
+        Map<Endpoint, int[]> conflictsAndErrors = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new ArrayList<>());
+            conflictsAndErrors.put(endpoint, new int[2]);
+        }
+        for (Future<Worker> future : futures) {
+            Worker worker = future.get(WARMUP_SECONDS + DURATION_SECONDS + 120L, TimeUnit.SECONDS);
+            for (Endpoint endpoint : Endpoint.values()) {
+                latencies.get(endpoint).addAll(worker.latencies.get(endpoint));
+                conflictsAndErrors.get(endpoint)[0] += worker.conflicts.get(endpoint)[0];
+                conflictsAndErrors.get(endpoint)[1] += worker.errors.get(endpoint)[0];
+            }
+        }
+        executor.shutdownNow();
+
+        List<LatencyStats> stats = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            int[] counts = conflictsAndErrors.get(endpoint);
+            stats.add(LatencyStats.of(endpoint.name(), latencies.get(endpoint), counts[0], counts[1]));
+        }
+        report(stats);
+
+        assertThat(stats).allSatisfy(s -> assertThat(s.errors()).isZero());
+    }
+
+    // Patients + admin avec un seul hash BCrypt pré-calculé, RDV répartis sur les créneaux passés et futurs
+    private List<User> seed() {
+        appointmentRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(User.builder()
+                    .email("patient" + i + "@load.test")
+                    .password(hash)
+                    .nom("Patient" + i)
+                    .prenom("Charge")
+                    .role(Role.PATIENT)
+                    .enabled(true)
+                    .build());
+        }
+        List<User> patients = userRepository.saveAll(users);
+        userRepository.save(User.builder()
+                .email(ADMIN_EMAIL)
+                .password(hash)
+                .nom("Admin")
+                .prenom("Charge")
+                .role(Role.ADMIN)
+                .enabled(true)
+                .build());
+
+        // Historique : créneaux horaires distincts, à partir d'un an en arrière, jamais sur la fenêtre de réservation
+        List<Appointment> appointments = new ArrayList<>();
+        LocalDate firstDay = LocalDate.now().minusDays(365);
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            LocalDate day = firstDay.plusDays(i / SLOT_HOURS.length);
+            if (!day.isBefore(LocalDate.now())) {
+                break;
+            }
+            appointments.add(Appointment.builder()
+                    .dateHeure(day.atTime(SLOT_HOURS[i % SLOT_HOURS.length], 0))
+                    .motif("Historique " + i)
+                    .patient(patients.get(i % patients.size()))
+                    .status(Appointment.Status.COMPLETED)
+                    .build());
+        }
+        appointmentRepository.saveAll(appointments);
+        return patients;
+    }
+
+    private String login(String email) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post("/api/auth/login",
+                "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}", null));
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpRequest post(String path, String json, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        return authorize(builder, token).build();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return authorize(HttpRequest.newBuilder(uri(path)).GET(), token).build();
+    }
+
+    private HttpRequest delete(String path, String token) {
+        return authorize(HttpRequest.newBuilder(uri(path)).DELETE(), token).build();
+    }
+
+    private HttpRequest.Builder authorize(HttpRequest.Builder builder, String token) {
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void report(List<LatencyStats> stats) throws IOException {
+        StringBuilder report = new StringBuilder()
+                .append(String.format("Charge : %d clients, %d patients, %d RDV initiaux, %ds mesurées (JDK %s, threads %s)%n",
+                        CONCURRENCY, USERS, APPOINTMENTS, DURATION_SECONDS, Runtime.version(),
+                        virtualThreads && Runtime.version().feature() >= 21 ? "virtuels" : "plateforme"))
+                .append(LatencyStats.header()).append(System.lineSeparator());
+        for (LatencyStats s : stats) {
+            report.append(s.format(DURATION_SECONDS)).append(System.lineSeparator());
+        }
+        System.out.println(report);
+        Files.writeString(Path.of("target", "load-test-report.txt"), report);
+    }
+
+    // Client virtuel : un patient, enchaîne les requêtes tirées selon les poids jusqu'à la fin
+    private final class Worker {
+
+        private final String email;
+        private final String adminToken;
+        private final long warmupEnd;
+        private final long end;
+        private final Deque<Long> cancellable = new ArrayDeque<>();
+        private final Set<String> failures = new HashSet<>();
+        private final Map<Endpoint, List<Long>> latencies = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, int[]> conflicts = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, int[]> errors = new EnumMap<>(Endpoint.class);
+        private String token;
+
+        private Worker(String email, String adminToken, long warmupEnd, long end) {
+            this.email = email;
+            this.adminToken = adminToken;
+            this.warmupEnd = warmupEnd;
+            this.end = end;
+            for (Endpoint endpoint : Endpoint.values()) {
+                latencies.put(endpoint, new ArrayList<>());
+                conflicts.put(endpoint, new int[1]);
+                errors.put(endpoint, new int[1]);
+            }
+        }
+
+        private void run() throws IOException, InterruptedException {
+            token = login(email);
+            int totalWeight = 0;
+            for (Endpoint endpoint : Endpoint.values()) {
+                totalWeight += endpoint.weight;
+            }
+
+            while (System.nanoTime() < end) {
+                int draw = ThreadLocalRandom.current().nextInt(totalWeight);
+                for (Endpoint endpoint : Endpoint.values()) {
+                    draw -= endpoint.weight;
+                    if (draw < 0) {
+                        call(endpoint);
+                        break;
+                    }
+                }
+            }
+            if (!failures.isEmpty()) {
+                System.err.println("Erreurs " + email + " : " + failures);
+            }
+        }
+
+        private void call(Endpoint endpoint) throws IOException, InterruptedException {
+            HttpRequest request = switch (endpoint) {
+                case LOGIN -> post("/api/auth/login",
+                        "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}", null);
+                case CREATE_APPOINTMENT -> post("/api/appointments",
+                        "{\"dateHeure\":\"" + randomSlot() + "\",\"motif\":\"Charge\"}", token);
+                case MY_APPOINTMENTS -> get("/api/appointments/me", token);
+                case CANCEL_APPOINTMENT -> cancellable.isEmpty()
+                        ? get("/api/appointments/me", token)
+                        : delete("/api/appointments/" + cancellable.pop() + "/cancel", token);
+                case ADMIN_LIST -> get("/api/appointments?size=50", adminToken);
+            };
+
+            long start = System.nanoTime();
+            HttpResponse<String> response = send(request);
+            long latency = System.nanoTime() - start;
+
+            int status = response.statusCode();
+            if (endpoint == Endpoint.CREATE_APPOINTMENT && status == 200) {
+                JsonNode created = objectMapper.readTree(response.body());
+                cancellable.push(created.get("id").asLong());
+            }
+            if (start < warmupEnd) {
+                return;
+            }
+            latencies.get(endpoint).add(latency);
+            if (status == 409) {
+                conflicts.get(endpoint)[0]++;
+            } else if (status >= 300) {
+                errors.get(endpoint)[0]++;
+                failures.add(endpoint + " " + status);
+            }
+        }
+
+        private LocalDateTime randomSlot() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return LocalDate.now()
+                    .plusDays(FIRST_BOOKING_DAY + random.nextInt(BOOKING_DAYS))
+                    .atTime(SLOT_HOURS[random.nextInt(SLOT_HOURS.length)], 0);
+        }
+    }
+}
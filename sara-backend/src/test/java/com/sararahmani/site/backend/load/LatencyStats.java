@@ -0,0 +1,47 @@
+package com.sararahmani.site.backend.load;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Percentiles de latence d'un endpoint (valeurs en nanosecondes)
+record LatencyStats(String endpoint, int count, int conflicts, int errors, long p50, long p90, long p99, long max) {
+
+    static LatencyStats of(String endpoint, List<Long> latencies, int conflicts, int errors) {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return new LatencyStats(
+                endpoint,
+                sorted.length,
+                conflicts,
+                errors,
+                percentile(sorted, 50),
+                percentile(sorted, 90),
+                percentile(sorted, 99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1]
+        );
+    }
+
+    static String header() {
+        return String.format("%-22s %8s %8s %8s %10s %10s %10s %10s %10s",
+                "endpoint", "count", "409", "erreurs", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+    }
+
+    String format(double durationSeconds) {
+        return String.format("%-22s %8d %8d %8d %10.1f %10.2f %10.2f %10.2f %10.2f",
+                endpoint, count, conflicts, errors, count / durationSeconds,
+                millis(p50), millis(p90), millis(p99), millis(max));
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
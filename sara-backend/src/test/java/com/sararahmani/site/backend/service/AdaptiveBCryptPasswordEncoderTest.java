@@ -0,0 +1,45 @@
+package com.sararahmani.site.backend.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    private final AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+    @Test
+    @DisplayName("Hash au cout courant - pas de reencodage")
+    void upgradeEncoding_SameStrength() {
+        assertThat(encoder.upgradeEncoding(encoder.encode("password"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Hash a un cout plus faible - reencodage")
+    void upgradeEncoding_LowerStrength() {
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Hash a un cout plus fort - reencodage a la baisse")
+    void upgradeEncoding_HigherStrength() {
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Hash qui n'est pas du BCrypt - refuse")
+    void upgradeEncoding_NotBCrypt() {
+        assertThatThrownBy(() -> encoder.upgradeEncoding("plaintext"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Calibration - bornee par le cout minimal et maximal")
+    void calibrate_StaysWithinBounds() {
+        assertThat(AdaptiveBCryptPasswordEncoder.calibrate(0, 4, 6)).isEqualTo(4);
+        assertThat(AdaptiveBCryptPasswordEncoder.calibrate(60_000, 4, 6)).isEqualTo(6);
+    }
+}
@@ -1,11 +1,14 @@
 package com.sararahmani.site.backend.service;
 
+import com.sararahmani.site.backend.dto.AppointmentFilter;
 import com.sararahmani.site.backend.dto.AppointmentRequest;
 import com.sararahmani.site.backend.dto.AppointmentResponse;
+import com.sararahmani.site.backend.dto.CursorPage;
 import com.sararahmani.site.backend.entity.Appointment;
 import com.sararahmani.site.backend.entity.Role;
 import com.sararahmani.site.backend.entity.User;
 import com.sararahmani.site.backend.exception.AccessDeniedException;
+import com.sararahmani.site.backend.exception.BadRequestException;
 import com.sararahmani.site.backend.exception.ConflictException;
 import com.sararahmani.site.backend.exception.EntityNotFoundException;
 import com.sararahmani.site.backend.repository.AppointmentRepository;
@@ -19,6 +22,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -28,17 +32,25 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AppointmentServiceTest {
 
+    private static final AppointmentFilter AUCUN_FILTRE = new AppointmentFilter(null, null, null, null);
+
     @Mock
     private AppointmentRepository appointmentRepository;
 
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private AppointmentSlotLockService slotLockService;
+
     @InjectMocks
     private AppointmentService appointmentService;
 
@@ -84,7 +96,7 @@ class AppointmentServiceTest {
         void createAppointment_Success() {
             // Given
             when(userRepository.findById(1L)).thenReturn(Optional.of(patient));
-            when(appointmentRepository.findAvailableSlots(any(), any())).thenReturn(Collections.emptyList());
+            when(appointmentRepository.existsOverlapping(any(), any(), any(), any(), anyInt())).thenReturn(false);
             when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
 
             // When
@@ -100,6 +112,23 @@ class AppointmentServiceTest {
             verify(appointmentRepository).save(any(Appointment.class));
         }
 
+        @Test
+        @DisplayName("Creation - le jour est verrouille avant la recherche de chevauchement")
+        void createAppointment_LocksDayBeforeOverlapCheck() {
+            // Given
+            when(userRepository.findById(1L)).thenReturn(Optional.of(patient));
+            when(appointmentRepository.existsOverlapping(any(), any(), any(), any(), anyInt())).thenReturn(false);
+
+            // When
+            appointmentService.createAppointment(1L, appointmentRequest);
+
+            // Then
+            var inOrder = inOrder(slotLockService, appointmentRepository);
+            inOrder.verify(slotLockService).lockDays(futureDate, futureDate.plusMinutes(60));
+            inOrder.verify(appointmentRepository).existsOverlapping(any(), any(), any(), any(), anyInt());
+            inOrder.verify(appointmentRepository).save(any(Appointment.class));
+        }
+
         @Test
         @DisplayName("Creation echouee - patient non trouve")
         void createAppointment_PatientNotFound() {
@@ -119,7 +148,7 @@ class AppointmentServiceTest {
         void createAppointment_SlotAlreadyTaken() {
             // Given
             when(userRepository.findById(1L)).thenReturn(Optional.of(patient));
-            when(appointmentRepository.findAvailableSlots(any(), any())).thenReturn(List.of(appointment));
+            when(appointmentRepository.existsOverlapping(any(), any(), any(), any(), anyInt())).thenReturn(true);
 
             // When & Then
             assertThatThrownBy(() -> appointmentService.createAppointment(1L, appointmentRequest))
@@ -134,7 +163,7 @@ class AppointmentServiceTest {
         void createAppointment_DefaultStatusIsPlanned() {
             // Given
             when(userRepository.findById(1L)).thenReturn(Optional.of(patient));
-            when(appointmentRepository.findAvailableSlots(any(), any())).thenReturn(Collections.emptyList());
+            when(appointmentRepository.existsOverlapping(any(), any(), any(), any(), anyInt())).thenReturn(false);
             when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
             // When
@@ -163,8 +192,8 @@ class AppointmentServiceTest {
                     .status(Appointment.Status.PLANNED)
                     .build();
 
-            when(appointmentRepository.findByPatientIdOrderByDateHeureDesc(1L))
-                    .thenReturn(List.of(appointment, appointment2));
+            when(appointmentRepository.findResponsesByPatientId(1L))
+                    .thenReturn(List.of(toResponse(appointment), toResponse(appointment2)));
 
             // When
             List<AppointmentResponse> responses = appointmentService.getMyAppointments(1L);
@@ -179,7 +208,7 @@ class AppointmentServiceTest {
         @DisplayName("Recuperer les rendez-vous - liste vide")
         void getMyAppointments_EmptyList() {
             // Given
-            when(appointmentRepository.findByPatientIdOrderByDateHeureDesc(1L))
+            when(appointmentRepository.findResponsesByPatientId(1L))
                     .thenReturn(Collections.emptyList());
 
             // When
@@ -193,14 +222,46 @@ class AppointmentServiceTest {
         @DisplayName("Recuperer tous les rendez-vous (admin)")
         void getAllAppointments_Success() {
             // Given
-            when(appointmentRepository.findAllByOrderByDateHeureDesc())
-                    .thenReturn(List.of(appointment));
+            when(appointmentRepository.findPage(isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), eq(Limit.of(51))))
+                    .thenReturn(List.of(toResponse(appointment)));
 
             // When
-            List<AppointmentResponse> responses = appointmentService.getAllAppointments();
+            CursorPage<AppointmentResponse> page = appointmentService.getAllAppointments(AUCUN_FILTRE, null, 50);
 
             // Then
-            assertThat(responses).hasSize(1);
+            assertThat(page.items()).hasSize(1);
+            assertThat(page.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Page pleine - le curseur suivant pointe sur le dernier element")
+        void getAllAppointments_NextCursor() {
+            // Given
+            Appointment older = Appointment.builder()
+                    .id(2L)
+                    .dateHeure(futureDate.minusDays(1))
+                    .motif("Plus ancien")
+                    .patient(patient)
+                    .build();
+            when(appointmentRepository.findPage(any(), any(), any(), any(), any(), any(), eq(Limit.of(2))))
+                    .thenReturn(List.of(toResponse(appointment), toResponse(older)));
+
+            // When
+            CursorPage<AppointmentResponse> page = appointmentService.getAllAppointments(AUCUN_FILTRE, null, 1);
+            appointmentService.getAllAppointments(AUCUN_FILTRE, page.nextCursor(), 1);
+
+            // Then
+            assertThat(page.items()).hasSize(1);
+            assertThat(page.nextCursor()).isNotNull();
+            verify(appointmentRepository).findPage(isNull(), isNull(), isNull(), isNull(),
+                    eq(appointment.getDateHeure()), eq(appointment.getId()), eq(Limit.of(2)));
+        }
+
+        @Test
+        @DisplayName("Curseur invalide - BadRequestException")
+        void getAllAppointments_InvalidCursor() {
+            assertThatThrownBy(() -> appointmentService.getAllAppointments(AUCUN_FILTRE, "pas-un-curseur", 10))
+                    .isInstanceOf(BadRequestException.class);
         }
     }
 
@@ -300,8 +361,8 @@ class AppointmentServiceTest {
             appointment.setDateHeure(in72Hours);
             appointment.setStatus(Appointment.Status.PLANNED);
 
-            when(appointmentRepository.findByPatientIdOrderByDateHeureDesc(1L))
-                    .thenReturn(List.of(appointment));
+            when(appointmentRepository.findResponsesByPatientId(1L))
+                    .thenReturn(List.of(toResponse(appointment)));
 
             // When
             List<AppointmentResponse> responses = appointmentService.getMyAppointments(1L);
@@ -318,8 +379,8 @@ class AppointmentServiceTest {
             appointment.setDateHeure(in24Hours);
             appointment.setStatus(Appointment.Status.PLANNED);
 
-            when(appointmentRepository.findByPatientIdOrderByDateHeureDesc(1L))
-                    .thenReturn(List.of(appointment));
+            when(appointmentRepository.findResponsesByPatientId(1L))
+                    .thenReturn(List.of(toResponse(appointment)));
 
             // When
             List<AppointmentResponse> responses = appointmentService.getMyAppointments(1L);
@@ -336,8 +397,8 @@ class AppointmentServiceTest {
             appointment.setDateHeure(in72Hours);
             appointment.setStatus(Appointment.Status.CANCELLED);
 
-            when(appointmentRepository.findByPatientIdOrderByDateHeureDesc(1L))
-                    .thenReturn(List.of(appointment));
+            when(appointmentRepository.findResponsesByPatientId(1L))
+                    .thenReturn(List.of(toResponse(appointment)));
 
             // When
             List<AppointmentResponse> responses = appointmentService.getMyAppointments(1L);
@@ -346,4 +407,16 @@ class AppointmentServiceTest {
             assertThat(responses.get(0).canPatientCancel()).isFalse();
         }
     }
+
+    // Equivalent de la projection JPQL du repository
+    private static AppointmentResponse toResponse(Appointment a) {
+        return new AppointmentResponse(
+                a.getId(),
+                a.getDateHeure(),
+                a.getMotif(),
+                a.getPatient().getNom(),
+                a.getPatient().getPrenom(),
+                a.getStatus()
+        );
+    }
 }
@@ -4,6 +4,7 @@ import com.sararahmani.site.backend.dto.AuthRequest;
 import com.sararahmani.site.backend.dto.AuthResponse;
 import com.sararahmani.site.backend.dto.RegisterRequest;
 import com.sararahmani.site.backend.entity.EmailConfirmation;
+import com.sararahmani.site.backend.entity.PasswordResetToken;
 import com.sararahmani.site.backend.entity.Role;
 import com.sararahmani.site.backend.entity.User;
 import com.sararahmani.site.backend.exception.EmailAlreadyExistsException;
@@ -19,6 +20,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -31,6 +33,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -55,7 +58,7 @@ class AuthServiceTest {
     private UserMapper userMapper;
 
     @Mock
-    private MailService mailService;
+    private OutboxService outboxService;
 
     @Mock
     private EmailConfirmationRepository emailConfirmationRepository;
@@ -63,6 +66,9 @@ class AuthServiceTest {
     @Mock
     private PasswordResetTokenRepository passwordResetTokenRepository;
 
+    @Spy
+    private TokenGenerator tokenGenerator = new TokenGenerator(32);
+
     @InjectMocks
     private AuthService authService;
 
@@ -121,7 +127,25 @@ class AuthServiceTest {
 
             verify(userRepository).save(any(User.class));
             verify(emailConfirmationRepository).save(any(EmailConfirmation.class));
-            verify(mailService).sendConfirmationEmail(eq("test@example.com"), anyString());
+            verify(outboxService).enqueueConfirmationEmail(eq("test@example.com"), anyString());
+        }
+
+        @Test
+        @DisplayName("Inscription - token genere envoye par email, seule son empreinte est stockee")
+        void register_StoresOnlyTokenHash() {
+            // Given
+            when(userRepository.existsByEmail(registerRequest.email())).thenReturn(false);
+            when(userMapper.fromRegister(registerRequest)).thenReturn(testUser);
+            when(tokenGenerator.generate()).thenReturn("jeton-genere");
+
+            // When
+            authService.register(registerRequest);
+
+            // Then
+            ArgumentCaptor<EmailConfirmation> captor = ArgumentCaptor.forClass(EmailConfirmation.class);
+            verify(emailConfirmationRepository).save(captor.capture());
+            assertThat(captor.getValue().getTokenHash()).isEqualTo(TokenHasher.hash("jeton-genere"));
+            verify(outboxService).enqueueConfirmationEmail("test@example.com", "jeton-genere");
         }
 
         @Test
@@ -136,7 +160,7 @@ class AuthServiceTest {
                     .hasMessage("Cette adresse email est déjà utilisée.");
 
             verify(userRepository, never()).save(any());
-            verify(mailService, never()).sendConfirmationEmail(anyString(), anyString());
+            verify(outboxService, never()).enqueueConfirmationEmail(anyString(), anyString());
         }
 
         @Test
@@ -188,7 +212,7 @@ class AuthServiceTest {
         void authenticate_Success() {
             // Given
             testUser.setEnabled(true);
-            when(userRepository.findByEmail(authRequest.email())).thenReturn(Optional.of(testUser));
+            when(userRepository.findByEmailUncached(authRequest.email())).thenReturn(Optional.of(testUser));
             when(jwtService.generateToken(eq(testUser.getEmail()), any(Map.class))).thenReturn("jwt-token");
             when(userMapper.toAuthResponse(eq(testUser), eq("jwt-token")))
                     .thenReturn(new AuthResponse("jwt-token", "test@example.com", "Dupont", "Jean", "PATIENT"));
@@ -229,13 +253,13 @@ class AuthServiceTest {
         void confirmEmail_Success() {
             // Given
             EmailConfirmation confirmation = EmailConfirmation.builder()
-                    .token("valid-token")
+                    .tokenHash(TokenHasher.hash("valid-token"))
                     .email("test@example.com")
                     .expiresAt(LocalDateTime.now().plusHours(1))
                     .used(false)
                     .build();
 
-            when(emailConfirmationRepository.findByToken("valid-token")).thenReturn(Optional.of(confirmation));
+            when(emailConfirmationRepository.findByTokenHash(aryEq(TokenHasher.hash("valid-token")))).thenReturn(Optional.of(confirmation));
             when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
 
             // When
@@ -255,13 +279,13 @@ class AuthServiceTest {
         void confirmEmail_TokenAlreadyUsed() {
             // Given
             EmailConfirmation confirmation = EmailConfirmation.builder()
-                    .token("used-token")
+                    .tokenHash(TokenHasher.hash("used-token"))
                     .email("test@example.com")
                     .expiresAt(LocalDateTime.now().plusHours(1))
                     .used(true)
                     .build();
 
-            when(emailConfirmationRepository.findByToken("used-token")).thenReturn(Optional.of(confirmation));
+            when(emailConfirmationRepository.findByTokenHash(aryEq(TokenHasher.hash("used-token")))).thenReturn(Optional.of(confirmation));
 
             // When
             String result = authService.confirmEmail("used-token");
@@ -276,13 +300,13 @@ class AuthServiceTest {
         void confirmEmail_TokenExpired() {
             // Given
             EmailConfirmation confirmation = EmailConfirmation.builder()
-                    .token("expired-token")
+                    .tokenHash(TokenHasher.hash("expired-token"))
                     .email("test@example.com")
                     .expiresAt(LocalDateTime.now().minusHours(1))
                     .used(false)
                     .build();
 
-            when(emailConfirmationRepository.findByToken("expired-token")).thenReturn(Optional.of(confirmation));
+            when(emailConfirmationRepository.findByTokenHash(aryEq(TokenHasher.hash("expired-token")))).thenReturn(Optional.of(confirmation));
 
             // When
             String result = authService.confirmEmail("expired-token");
@@ -296,7 +320,7 @@ class AuthServiceTest {
         @DisplayName("Confirmation email echouee - token invalide")
         void confirmEmail_InvalidToken() {
             // Given
-            when(emailConfirmationRepository.findByToken("invalid-token")).thenReturn(Optional.empty());
+            when(emailConfirmationRepository.findByTokenHash(aryEq(TokenHasher.hash("invalid-token")))).thenReturn(Optional.empty());
 
             // When & Then
             assertThatThrownBy(() -> authService.confirmEmail("invalid-token"))
@@ -304,4 +328,34 @@ class AuthServiceTest {
                     .hasMessage("Token invalide");
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Tests de reinitialisation du mot de passe")
+    class ResetPasswordTests {
+
+        @Test
+        @DisplayName("Reinitialisation reussie - revoque les JWT existants")
+        void resetPassword_IncrementsTokenVersion() {
+            // Given
+            PasswordResetToken resetToken = PasswordResetToken.builder()
+                    .tokenHash(TokenHasher.hash("reset-token"))
+                    .email("test@example.com")
+                    .expiresAt(LocalDateTime.now().plusHours(1))
+                    .used(false)
+                    .build();
+
+            when(passwordResetTokenRepository.findByTokenHash(aryEq(TokenHasher.hash("reset-token")))).thenReturn(Optional.of(resetToken));
+            when(userRepository.findByEmailUncached("test@example.com")).thenReturn(Optional.of(testUser));
+            when(passwordEncoder.encode("newPassword")).thenReturn("newEncodedPassword");
+
+            // When
+            String result = authService.resetPassword("reset-token", "newPassword");
+
+            // Then
+            assertThat(result).isEqualTo("Votre mot de passe a été réinitialisé avec succès !");
+            assertThat(testUser.getPassword()).isEqualTo("newEncodedPassword");
+            assertThat(testUser.getTokenVersion()).isEqualTo(1);
+            assertThat(resetToken.isUsed()).isTrue();
+        }
+    }
+}
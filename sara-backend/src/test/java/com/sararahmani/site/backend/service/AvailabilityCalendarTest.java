@@ -0,0 +1,131 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.dto.AppointmentSlot;
+import com.sararahmani.site.backend.dto.DayAvailability;
+import com.sararahmani.site.backend.exception.BadRequestException;
+import com.sararahmani.site.backend.repository.AppointmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AvailabilityCalendarTest {
+
+    private AppointmentRepository appointmentRepository;
+    private AvailabilityCalendar calendar;
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository = mock(AppointmentRepository.class);
+        calendar = calendar("09:00", "10:00", "11:00");
+        day = LocalDate.now().plusDays(7);
+    }
+
+    @Test
+    @DisplayName("Un RDV bloque sa duree et la pause qui suit")
+    void put_BlocksDurationAndPause() {
+        calendar = calendar("09:00", "09:30", "10:00", "10:55", "11:00");
+        calendar.put(1L, day.atTime(10, 0), 50);
+
+        assertThat(freeSlots(day)).containsExactly(LocalTime.of(9, 0), LocalTime.of(11, 0));
+    }
+
+    @Test
+    @DisplayName("Horaire non aligne sur les tranches de 10 minutes - pas de faux conflit")
+    void put_UnalignedTimes_ExactCheck() {
+        calendar = calendar("10:52", "10:55");
+        calendar.put(1L, day.atTime(10, 0), 43);
+
+        // Occupé jusqu'à 10h53 : la tranche 10h50-11h00 est marquée mais 10h55 reste libre
+        assertThat(freeSlots(day)).containsExactly(LocalTime.of(10, 55));
+    }
+
+    @Test
+    @DisplayName("Suppression - le creneau redevient libre, les autres RDV du jour restent")
+    void remove_FreesOnlyThatAppointment() {
+        calendar.put(1L, day.atTime(9, 0), 50);
+        calendar.put(2L, day.atTime(10, 0), 50);
+
+        calendar.remove(1L);
+
+        assertThat(freeSlots(day)).containsExactly(LocalTime.of(9, 0), LocalTime.of(11, 0));
+    }
+
+    @Test
+    @DisplayName("Deplacement d'un RDV - l'ancien creneau est libere")
+    void put_SameId_Moves() {
+        calendar.put(1L, day.atTime(9, 0), 50);
+        calendar.put(1L, day.atTime(11, 0), 50);
+
+        assertThat(freeSlots(day)).containsExactly(LocalTime.of(9, 0), LocalTime.of(10, 0));
+    }
+
+    @Test
+    @DisplayName("RDV qui deborde apres minuit - le lendemain est bloque")
+    void put_AcrossMidnight() {
+        calendar = calendar("00:00", "00:30");
+        calendar.put(1L, day.atTime(23, 30), 50);
+
+        assertThat(freeSlots(day.plusDays(1))).containsExactly(LocalTime.of(0, 30));
+    }
+
+    @Test
+    @DisplayName("Disponibilites - seuls les horaires libres sont proposes")
+    void availability_ListsFreeSlots() {
+        calendar.put(1L, day.atTime(10, 0), 50);
+
+        List<DayAvailability> result = calendar.availability(day, day.plusDays(1));
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).date()).isEqualTo(day);
+        assertThat(result.get(0).slots()).containsExactly(LocalTime.of(9, 0), LocalTime.of(11, 0));
+        assertThat(result.get(1).slots()).containsExactly(LocalTime.of(9, 0), LocalTime.of(10, 0), LocalTime.of(11, 0));
+    }
+
+    @Test
+    @DisplayName("Disponibilites - la periode est bornee")
+    void availability_RangeIsCapped() {
+        List<DayAvailability> result = calendar.availability(day, day.plusYears(1));
+
+        assertThat(result).hasSize(62);
+    }
+
+    @Test
+    @DisplayName("Disponibilites - periode inversee refusee")
+    void availability_ToBeforeFrom_BadRequest() {
+        assertThatThrownBy(() -> calendar.availability(day, day.minusDays(1)))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Reconstruction - remplace l'etat par celui de la base")
+    void rebuild_ReplacesState() {
+        calendar.put(1L, day.atTime(9, 0), 50);
+        LocalDateTime dateHeure = day.atTime(11, 0);
+        when(appointmentRepository.findSlotsFrom(any(), any()))
+                .thenReturn(List.of(new AppointmentSlot(2L, dateHeure, 50)));
+
+        calendar.rebuild();
+
+        assertThat(freeSlots(day)).containsExactly(LocalTime.of(9, 0), LocalTime.of(10, 0));
+    }
+
+    private AvailabilityCalendar calendar(String... slotTimes) {
+        return new AvailabilityCalendar(appointmentRepository, slotTimes, 62);
+    }
+
+    private List<LocalTime> freeSlots(LocalDate date) {
+        return calendar.availability(date, date).get(0).slots();
+    }
+}
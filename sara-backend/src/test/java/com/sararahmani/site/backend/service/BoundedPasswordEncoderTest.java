@@ -0,0 +1,108 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BoundedPasswordEncoderTest {
+
+    private final PasswordEncoder delegate = mock(PasswordEncoder.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Delegue le hash et la verification au pool dedie")
+    void encodeAndMatches_RunOnHashingThreads() {
+        encoder = new BoundedPasswordEncoder(delegate, 2, 10, 100, 5_000, meterRegistry);
+        when(delegate.encode("password")).thenAnswer(inv -> Thread.currentThread().getName());
+        when(delegate.matches("password", "hash")).thenReturn(true);
+
+        assertThat(encoder.encode("password")).startsWith("password-hash-");
+        assertThat(encoder.matches("password", "hash")).isTrue();
+        assertThat(encoder.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Exception du delegue - propagee telle quelle, permis rendu")
+    void encode_PropagatesDelegateException() {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, 100, 5_000, meterRegistry);
+        when(delegate.matches(any(), any())).thenThrow(new IllegalArgumentException("Hash invalide"));
+
+        assertThatThrownBy(() -> encoder.matches("password", "hash"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Hash invalide");
+        assertThat(encoder.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Permis epuises - refus en 503 apres le delai d'attente, compte en metrique")
+    void encode_Saturated_Rejects() throws Exception {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 2, 50, 5_000, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.encode(any())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+
+        // Un hash en cours, un en file : les deux permis sont pris
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (encoder.queuedTasks() < 1 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        assertThat(meterRegistry.get("password.hashing.saturation").gauge().value()).isEqualTo(1.0);
+        assertThatThrownBy(() -> encoder.encode("c"))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .satisfies(e -> assertThat(((ServiceUnavailableException) e).getRetryAfterSeconds()).isPositive());
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(encoder.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Resultat trop long - refus en 503 apres le delai d'execution, permis rendu")
+    void encode_ExecutionTimeout_Rejects() {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 2, 50, 100, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.encode(any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+
+        try {
+            assertThatThrownBy(() -> encoder.encode("a"))
+                    .isInstanceOf(ServiceUnavailableException.class)
+                    .satisfies(e -> assertThat(((ServiceUnavailableException) e).getRetryAfterSeconds()).isPositive());
+            assertThat(meterRegistry.get("password.hashing.timeout").counter().count()).isEqualTo(1.0);
+            assertThat(encoder.inFlight()).isZero();
+        } finally {
+            release.countDown();
+        }
+    }
+}
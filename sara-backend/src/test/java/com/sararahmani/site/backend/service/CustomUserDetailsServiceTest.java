@@ -18,6 +18,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -58,7 +59,7 @@ class CustomUserDetailsServiceTest {
     @Test
     @DisplayName("Charger un utilisateur active")
     void loadUserByUsername_EnabledUser() {
-        when(userRepository.findByEmail("enabled@example.com")).thenReturn(Optional.of(enabledUser));
+        when(userRepository.findByEmailUncached("enabled@example.com")).thenReturn(Optional.of(enabledUser));
 
         UserDetails userDetails = userDetailsService.loadUserByUsername("enabled@example.com");
 
@@ -70,7 +71,7 @@ class CustomUserDetailsServiceTest {
     @Test
     @DisplayName("Utilisateur non trouve")
     void loadUserByUsername_UserNotFound() {
-        when(userRepository.findByEmail("unknown@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findByEmailUncached("unknown@example.com")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> userDetailsService.loadUserByUsername("unknown@example.com"))
                 .isInstanceOf(UsernameNotFoundException.class)
@@ -80,10 +81,23 @@ class CustomUserDetailsServiceTest {
     @Test
     @DisplayName("Utilisateur desactive")
     void loadUserByUsername_DisabledUser() {
-        when(userRepository.findByEmail("disabled@example.com")).thenReturn(Optional.of(disabledUser));
+        when(userRepository.findByEmailUncached("disabled@example.com")).thenReturn(Optional.of(disabledUser));
 
         assertThatThrownBy(() -> userDetailsService.loadUserByUsername("disabled@example.com"))
                 .isInstanceOf(DisabledException.class)
                 .hasMessageContaining("compte n'est pas encore activé");
     }
+
+    @Test
+    @DisplayName("Rehash au login - nouveau hash enregistre, tokenVersion inchange")
+    void updatePassword_SavesNewHash() {
+        when(userRepository.findByEmailUncached("enabled@example.com")).thenReturn(Optional.of(enabledUser));
+        when(userRepository.save(enabledUser)).thenReturn(enabledUser);
+
+        UserDetails updated = userDetailsService.updatePassword(enabledUser, "{bcrypt}nouveauHash");
+
+        assertThat(updated.getPassword()).isEqualTo("{bcrypt}nouveauHash");
+        assertThat(enabledUser.getTokenVersion()).isZero();
+        verify(userRepository).save(enabledUser);
+    }
 }
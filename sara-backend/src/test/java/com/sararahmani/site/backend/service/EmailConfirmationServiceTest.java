@@ -12,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
@@ -19,6 +20,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -31,6 +33,9 @@ class EmailConfirmationServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private TokenGenerator tokenGenerator = new TokenGenerator(32);
+
     @InjectMocks
     private EmailConfirmationService emailConfirmationService;
 
@@ -57,14 +62,14 @@ class EmailConfirmationServiceTest {
         String token = emailConfirmationService.createTokenForUser(user);
 
         assertThat(token).isNotNull();
-        assertThat(token).isNotEmpty();
+        assertThat(token).hasSize(43);
 
         ArgumentCaptor<EmailConfirmation> captor = ArgumentCaptor.forClass(EmailConfirmation.class);
         verify(repository).save(captor.capture());
 
         EmailConfirmation saved = captor.getValue();
         assertThat(saved.getEmail()).isEqualTo("test@example.com");
-        assertThat(saved.getToken()).isEqualTo(token);
+        assertThat(saved.getTokenHash()).isEqualTo(TokenHasher.hash(token));
         assertThat(saved.getExpiresAt()).isAfter(LocalDateTime.now());
     }
 
@@ -72,13 +77,13 @@ class EmailConfirmationServiceTest {
     @DisplayName("Confirmer un token valide")
     void confirm_ValidToken() {
         EmailConfirmation confirmation = EmailConfirmation.builder()
-                .token("valid-token")
+                .tokenHash(TokenHasher.hash("valid-token"))
                 .email("test@example.com")
                 .expiresAt(LocalDateTime.now().plusHours(1))
                 .used(false)
                 .build();
 
-        when(repository.findByToken("valid-token")).thenReturn(Optional.of(confirmation));
+        when(repository.findByTokenHash(aryEq(TokenHasher.hash("valid-token")))).thenReturn(Optional.of(confirmation));
         when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
 
         emailConfirmationService.confirm("valid-token", userRepository);
@@ -93,7 +98,7 @@ class EmailConfirmationServiceTest {
     @Test
     @DisplayName("Confirmer un token invalide")
     void confirm_InvalidToken() {
-        when(repository.findByToken("invalid-token")).thenReturn(Optional.empty());
+        when(repository.findByTokenHash(aryEq(TokenHasher.hash("invalid-token")))).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> emailConfirmationService.confirm("invalid-token", userRepository))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -104,13 +109,13 @@ class EmailConfirmationServiceTest {
     @DisplayName("Confirmer un token deja utilise")
     void confirm_UsedToken() {
         EmailConfirmation confirmation = EmailConfirmation.builder()
-                .token("used-token")
+                .tokenHash(TokenHasher.hash("used-token"))
                 .email("test@example.com")
                 .expiresAt(LocalDateTime.now().plusHours(1))
                 .used(true)
                 .build();
 
-        when(repository.findByToken("used-token")).thenReturn(Optional.of(confirmation));
+        when(repository.findByTokenHash(aryEq(TokenHasher.hash("used-token")))).thenReturn(Optional.of(confirmation));
 
         assertThatThrownBy(() -> emailConfirmationService.confirm("used-token", userRepository))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -121,13 +126,13 @@ class EmailConfirmationServiceTest {
     @DisplayName("Confirmer un token expire")
     void confirm_ExpiredToken() {
         EmailConfirmation confirmation = EmailConfirmation.builder()
-                .token("expired-token")
+                .tokenHash(TokenHasher.hash("expired-token"))
                 .email("test@example.com")
                 .expiresAt(LocalDateTime.now().minusHours(1))
                 .used(false)
                 .build();
 
-        when(repository.findByToken("expired-token")).thenReturn(Optional.of(confirmation));
+        when(repository.findByTokenHash(aryEq(TokenHasher.hash("expired-token")))).thenReturn(Optional.of(confirmation));
 
         assertThatThrownBy(() -> emailConfirmationService.confirm("expired-token", userRepository))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -138,13 +143,13 @@ class EmailConfirmationServiceTest {
     @DisplayName("Confirmer - utilisateur non trouve")
     void confirm_UserNotFound() {
         EmailConfirmation confirmation = EmailConfirmation.builder()
-                .token("valid-token")
+                .tokenHash(TokenHasher.hash("valid-token"))
                 .email("unknown@example.com")
                 .expiresAt(LocalDateTime.now().plusHours(1))
                 .used(false)
                 .build();
 
-        when(repository.findByToken("valid-token")).thenReturn(Optional.of(confirmation));
+        when(repository.findByTokenHash(aryEq(TokenHasher.hash("valid-token")))).thenReturn(Optional.of(confirmation));
         when(userRepository.findByEmail("unknown@example.com")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> emailConfirmationService.confirm("valid-token", userRepository))
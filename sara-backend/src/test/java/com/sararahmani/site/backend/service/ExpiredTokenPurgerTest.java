@@ -0,0 +1,71 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.repository.EmailConfirmationRepository;
+import com.sararahmani.site.backend.repository.OutboxMessageRepository;
+import com.sararahmani.site.backend.repository.PasswordResetTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExpiredTokenPurgerTest {
+
+    private EmailConfirmationRepository emailConfirmationRepository;
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+    private OutboxMessageRepository outboxMessageRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private ExpiredTokenPurger purger;
+
+    @BeforeEach
+    void setUp() {
+        emailConfirmationRepository = mock(EmailConfirmationRepository.class);
+        passwordResetTokenRepository = mock(PasswordResetTokenRepository.class);
+        outboxMessageRepository = mock(OutboxMessageRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        purger = new ExpiredTokenPurger(emailConfirmationRepository, passwordResetTokenRepository, outboxMessageRepository,
+                meterRegistry, 24, 100);
+    }
+
+    @Test
+    @DisplayName("Lots successifs jusqu'a un lot incomplet, compteurs par table")
+    void purge_DeletesInBatchesUntilPartialBatch() {
+        when(emailConfirmationRepository.deleteExpiredBefore(any(), eq(100))).thenReturn(100, 100, 42);
+        when(passwordResetTokenRepository.deleteExpiredBefore(any(), eq(100))).thenReturn(0);
+        when(outboxMessageRepository.deleteFinishedBefore(any(), eq(100))).thenReturn(100, 7);
+
+        purger.purge();
+
+        verify(emailConfirmationRepository, times(3)).deleteExpiredBefore(any(), eq(100));
+        verify(passwordResetTokenRepository, times(1)).deleteExpiredBefore(any(), eq(100));
+        verify(outboxMessageRepository, times(2)).deleteFinishedBefore(any(), eq(100));
+        assertThat(meterRegistry.get("tokens.purged").tag("table", "email_confirmations").counter().count())
+                .isEqualTo(242.0);
+        assertThat(meterRegistry.get("tokens.purged").tag("table", "password_reset_tokens").counter().count())
+                .isZero();
+        assertThat(meterRegistry.get("tokens.purged").tag("table", "outbox").counter().count())
+                .isEqualTo(107.0);
+    }
+
+    @Test
+    @DisplayName("Seuls les tokens expires depuis plus que la retention sont vises")
+    void purge_UsesRetentionCutoff() {
+        LocalDateTime before = LocalDateTime.now().minusHours(24);
+
+        purger.purge();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(emailConfirmationRepository).deleteExpiredBefore(cutoff.capture(), eq(100));
+        assertThat(cutoff.getValue()).isBetween(before, LocalDateTime.now().minusHours(24));
+    }
+}
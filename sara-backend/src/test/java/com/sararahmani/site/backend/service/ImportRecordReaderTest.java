@@ -0,0 +1,80 @@
+package com.sararahmani.site.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sararahmani.site.backend.exception.BadRequestException;
+import com.sararahmani.site.backend.service.ImportRecordReader.ImportRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportRecordReaderTest {
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("CSV - BOM, guillemets, separateur point-virgule, numero de ligne")
+    void csv_QuotedFieldsAndLineNumbers() throws IOException {
+        String csv = "﻿nom;prenom;email\n"
+                + "Durand;\"Jean; \"\"JJ\"\"\";jean@example.com\n"
+                + "\n"
+                + "Martin;\"Anne\nMarie\";anne@example.com\n"
+                + "Petit;Luc\n";
+
+        try (ImportRecordReader reader = ImportRecordReader.csv(input(csv))) {
+            ImportRecord first = reader.next();
+            assertThat(first.number()).isEqualTo(2);
+            assertThat(first.get("nom")).isEqualTo("Durand");
+            assertThat(first.get("prenom")).isEqualTo("Jean; \"JJ\"");
+
+            ImportRecord second = reader.next();
+            assertThat(second.number()).isEqualTo(4);
+            assertThat(second.get("prenom")).isEqualTo("Anne\nMarie");
+
+            ImportRecord third = reader.next();
+            assertThat(third.number()).isEqualTo(6);
+            assertThat(third.get("email")).isNull();
+
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("CSV - plus de colonnes que l'en-tete : refuse")
+    void csv_TooManyColumns() throws IOException {
+        try (ImportRecordReader reader = ImportRecordReader.csv(input("nom,prenom\na,b,c\n"))) {
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Ligne 2");
+        }
+    }
+
+    @Test
+    @DisplayName("JSON - tableau d'objets lu enregistrement par enregistrement")
+    void json_ArrayOfObjects() throws IOException {
+        String json = "[{\"nom\":\"Durand\",\"dureeMinutes\":90,\"telephone\":null},{\"nom\":\"Martin\"}]";
+
+        try (ImportRecordReader reader = ImportRecordReader.json(input(json), new ObjectMapper())) {
+            ImportRecord first = reader.next();
+            assertThat(first.number()).isEqualTo(1);
+            assertThat(first.get("dureeMinutes")).isEqualTo("90");
+            assertThat(first.get("telephone")).isNull();
+            assertThat(reader.next().get("nom")).isEqualTo("Martin");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("JSON - objet au lieu d'un tableau : refuse")
+    void json_NotAnArray() {
+        assertThatThrownBy(() -> ImportRecordReader.json(input("{\"nom\":\"Durand\"}"), new ObjectMapper()))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
@@ -91,4 +91,52 @@ class JwtServiceTest {
         assertThat(jwtService.isTokenValid(token)).isTrue();
         assertThat(jwtService.extractSubject(token)).isEqualTo("admin@example.com");
     }
+
+    @Test
+    @DisplayName("verify retourne les claims d'un token valide")
+    void verify_ValidToken() {
+        String token = jwtService.generateToken("test@example.com", Map.of("role", "PATIENT"));
+
+        JwtVerification verification = jwtService.verify(token);
+
+        assertThat(verification.isValid()).isTrue();
+        assertThat(verification.subject()).isEqualTo("test@example.com");
+        assertThat(verification.claims().get("role")).isEqualTo("PATIENT");
+    }
+
+    @Test
+    @DisplayName("verify sert les tokens deja verifies depuis le cache")
+    void verify_RepeatedTokenIsCached() {
+        String token = jwtService.generateToken("test@example.com", Map.of("role", "PATIENT"));
+
+        jwtService.verify(token);
+        jwtService.verify(token);
+
+        assertThat(jwtService.verificationCacheStats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("verify signale un token expire")
+    void verify_ExpiredToken() {
+        JwtService expiredJwtService = new JwtService("testSecretKeyForUnitTestingPurposes123456789", -1000);
+        String token = expiredJwtService.generateToken("test@example.com", Map.of());
+
+        assertThat(expiredJwtService.verify(token).failure()).isEqualTo(JwtVerification.Failure.EXPIRED);
+    }
+
+    @Test
+    @DisplayName("verify signale une signature invalide")
+    void verify_TamperedToken() {
+        String token = jwtService.generateToken("test@example.com", Map.of("role", "PATIENT"));
+        String tamperedToken = token.substring(0, token.length() - 5) + "XXXXX";
+
+        assertThat(jwtService.verify(tamperedToken).failure()).isEqualTo(JwtVerification.Failure.INVALID_SIGNATURE);
+    }
+
+    @Test
+    @DisplayName("verify signale un token absent ou malforme")
+    void verify_MissingOrMalformedToken() {
+        assertThat(jwtService.verify(null).failure()).isEqualTo(JwtVerification.Failure.MISSING);
+        assertThat(jwtService.verify("invalid.token.here").failure()).isEqualTo(JwtVerification.Failure.MALFORMED);
+    }
 }
@@ -0,0 +1,128 @@
+package com.sararahmani.site.backend.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MailDispatcherTest {
+
+    // Serveur SMTP local de substitution (port 3025, comme le profil test)
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MailDispatcher dispatcher;
+
+    private MailDispatcher startDispatcher(JavaMailSender mailSender, int maxAttempts) {
+        dispatcher = new MailDispatcher(mailSender, meterRegistry, 100, 2, 10, maxAttempts, 10);
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.stop();
+    }
+
+    private SimpleMailMessage message(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("noreply@example.com");
+        message.setTo(to);
+        message.setSubject("Sujet");
+        message.setText("Contenu");
+        return message;
+    }
+
+    @Test
+    @DisplayName("Les emails en file sont delivres au serveur SMTP")
+    void enqueue_DeliversToSmtp() throws Exception {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        startDispatcher(mailSender, 3);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(dispatcher.enqueue(message("user" + i + "@example.com")));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(5);
+        assertThat(meterRegistry.counter("mail.sent").count()).isEqualTo(5);
+        assertThat(dispatcher.queueDepth()).isZero();
+    }
+
+    @Test
+    @DisplayName("Un echec SMTP temporaire est retente")
+    void enqueue_RetriesAfterFailure() throws Exception {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        doThrow(new MailSendException("SMTP indisponible"))
+                .doNothing()
+                .when(mailSender).send(any(SimpleMailMessage[].class));
+        startDispatcher(mailSender, 3);
+
+        dispatcher.enqueue(message("test@example.com")).get(5, TimeUnit.SECONDS);
+
+        verify(mailSender, times(2)).send(any(SimpleMailMessage[].class));
+        assertThat(meterRegistry.counter("mail.retried").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("L'envoi echoue apres le nombre maximum de tentatives")
+    void enqueue_FailsAfterMaxAttempts() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        doThrow(new MailSendException("SMTP indisponible"))
+                .when(mailSender).send(any(SimpleMailMessage[].class));
+        startDispatcher(mailSender, 2);
+
+        CompletableFuture<Void> future = dispatcher.enqueue(message("test@example.com"));
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(MailSendException.class);
+        assertThat(meterRegistry.counter("mail.failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A l'arret, un email en attente de retry est termine en echec")
+    void stop_FailsPendingRetries() throws Exception {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        doThrow(new MailSendException("SMTP indisponible"))
+                .when(mailSender).send(any(SimpleMailMessage[].class));
+        dispatcher = new MailDispatcher(mailSender, meterRegistry, 100, 1, 10, 5, 60_000);
+        dispatcher.start();
+
+        CompletableFuture<Void> future = dispatcher.enqueue(message("test@example.com"));
+        // Premier échec traité : l'email attend son retry (une minute)
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("mail.retried").count() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(meterRegistry.counter("mail.retried").count()).isEqualTo(1);
+        dispatcher.stop();
+
+        assertThatThrownBy(() -> future.get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(MailSendException.class)
+                .hasMessageContaining("arrêt");
+    }
+}
@@ -1,5 +1,6 @@
 package com.sararahmani.site.backend.service;
 
+import com.sararahmani.site.backend.entity.OutboxMessage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -7,37 +8,49 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class MailServiceTest {
 
     @Mock
-    private JavaMailSender mailSender;
+    private MailDispatcher mailDispatcher;
 
     private MailService mailService;
 
     @BeforeEach
     void setUp() {
-        mailService = new MailService(mailSender);
+        mailService = new MailService(mailDispatcher);
         ReflectionTestUtils.setField(mailService, "frontendUrl", "http://localhost:4200");
     }
 
+    private static OutboxMessage outbox(OutboxMessage.Type type, String recipient, String token) {
+        return OutboxMessage.builder()
+                .type(type)
+                .recipient(recipient)
+                .payload(token)
+                .build();
+    }
+
     @Test
     @DisplayName("Envoyer email de confirmation")
-    void sendConfirmationEmail_Success() {
+    void deliver_ConfirmationSuccess() {
         String email = "test@example.com";
         String token = "confirmation-token-123";
 
-        mailService.sendConfirmationEmail(email, token);
+        mailService.deliver(outbox(OutboxMessage.Type.EMAIL_CONFIRMATION, email, token));
 
         ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        verify(mailDispatcher).enqueue(messageCaptor.capture());
 
         SimpleMailMessage sentMessage = messageCaptor.getValue();
         assertThat(sentMessage.getTo()).containsExactly(email);
@@ -48,14 +61,14 @@ class MailServiceTest {
 
     @Test
     @DisplayName("Envoyer email de reinitialisation mot de passe")
-    void sendPasswordResetEmail_Success() {
+    void deliver_PasswordResetSuccess() {
         String email = "test@example.com";
         String token = "reset-token-456";
 
-        mailService.sendPasswordResetEmail(email, token);
+        mailService.deliver(outbox(OutboxMessage.Type.PASSWORD_RESET, email, token));
 
         ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        verify(mailDispatcher).enqueue(messageCaptor.capture());
 
         SimpleMailMessage sentMessage = messageCaptor.getValue();
         assertThat(sentMessage.getTo()).containsExactly(email);
@@ -66,13 +79,13 @@ class MailServiceTest {
 
     @Test
     @DisplayName("Email de confirmation contient le bon lien")
-    void sendConfirmationEmail_ContainsCorrectLink() {
+    void deliver_ConfirmationContainsCorrectLink() {
         String token = "my-token";
 
-        mailService.sendConfirmationEmail("user@test.com", token);
+        mailService.deliver(outbox(OutboxMessage.Type.EMAIL_CONFIRMATION, "user@test.com", token));
 
         ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        verify(mailDispatcher).enqueue(messageCaptor.capture());
 
         String body = messageCaptor.getValue().getText();
         assertThat(body).contains("http://localhost:4200/confirm-email?token=my-token");
@@ -80,15 +93,28 @@ class MailServiceTest {
 
     @Test
     @DisplayName("Email de reset contient le bon lien")
-    void sendPasswordResetEmail_ContainsCorrectLink() {
+    void deliver_PasswordResetContainsCorrectLink() {
         String token = "reset-token";
 
-        mailService.sendPasswordResetEmail("user@test.com", token);
+        mailService.deliver(outbox(OutboxMessage.Type.PASSWORD_RESET, "user@test.com", token));
 
         ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        verify(mailDispatcher).enqueue(messageCaptor.capture());
 
         String body = messageCaptor.getValue().getText();
         assertThat(body).contains("http://localhost:4200/reset-password?token=reset-token");
     }
+
+    @Test
+    @DisplayName("Relayer un message outbox - renvoie le futur du dispatcher, echec compris")
+    void deliver_ReturnsDispatcherFuture() {
+        CompletableFuture<Void> failed = CompletableFuture.failedFuture(new MailSendException("SMTP indisponible"));
+        when(mailDispatcher.enqueue(any(SimpleMailMessage.class))).thenReturn(failed);
+
+        CompletableFuture<Void> result = mailService.deliver(
+                outbox(OutboxMessage.Type.EMAIL_CONFIRMATION, "user@test.com", "my-token"));
+
+        // OutboxRelay s'appuie sur ce futur pour reprogrammer le message
+        assertThat(result).isSameAs(failed);
+    }
 }
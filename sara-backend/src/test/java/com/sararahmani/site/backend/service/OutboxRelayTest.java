@@ -0,0 +1,95 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.entity.OutboxMessage;
+import com.sararahmani.site.backend.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailSendException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxMessageRepository repository;
+
+    @Mock
+    private MailService mailService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxRelay relay;
+    private OutboxMessage message;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        relay = new OutboxRelay(repository, mailService, transactionTemplate, new SimpleMeterRegistry(), 50, 3, 300);
+        message = OutboxMessage.builder()
+                .id(1L)
+                .type(OutboxMessage.Type.EMAIL_CONFIRMATION)
+                .recipient("test@example.com")
+                .payload("token")
+                .build();
+
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        when(repository.findBatchToRelay(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(message));
+    }
+
+    @Test
+    @DisplayName("Un email envoye est marque SENT")
+    void relayPending_MarksSent() {
+        when(mailService.deliver(message)).thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.relayPending();
+
+        assertThat(message.getAttempts()).isEqualTo(1);
+        verify(repository).markSent(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Un echec d'envoi reprogramme le message avec backoff")
+    void relayPending_ReschedulesOnFailure() {
+        when(mailService.deliver(message))
+                .thenReturn(CompletableFuture.failedFuture(new MailSendException("SMTP indisponible")));
+
+        relay.relayPending();
+
+        verify(repository).markFailed(eq(1L), eq(OutboxMessage.Status.PENDING), any(LocalDateTime.class), eq("SMTP indisponible"));
+        verify(repository, never()).markSent(any(), any());
+    }
+
+    @Test
+    @DisplayName("Le message est abandonne apres le nombre maximum de tentatives")
+    void relayPending_FailsAfterMaxAttempts() {
+        message.setAttempts(2);
+        when(mailService.deliver(message))
+                .thenReturn(CompletableFuture.failedFuture(new MailSendException("SMTP indisponible")));
+
+        relay.relayPending();
+
+        verify(repository).markAbandoned(eq(1L), any(LocalDateTime.class), anyString());
+        verify(repository, never()).markFailed(any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,138 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.dto.PatientDto;
+import com.sararahmani.site.backend.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PatientSearchIndexTest {
+
+    private PatientRepository patientRepository;
+    private PatientSearchIndex index;
+
+    private final PatientDto helene = new PatientDto(1L, "Lefèvre", "Hélène", "helene.lefevre@example.com", "06 12 34 56 78");
+    private final PatientDto laetitia = new PatientDto(2L, "Cœur", "Lætitia", "l.coeur@example.com", null);
+    private final PatientDto jean = new PatientDto(3L, "Dupont", "Jean-François", "jf.dupont@example.com", "01.44.55.66.77");
+    private final PatientDto marie = new PatientDto(4L, "Dupond", "Marie", "marie.dupond@example.com", null);
+
+    @BeforeEach
+    void setUp() {
+        patientRepository = mock(PatientRepository.class);
+        index = new PatientSearchIndex(patientRepository);
+        when(patientRepository.findAllForSearch()).thenReturn(List.of(helene, laetitia, jean, marie));
+        index.rebuild();
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, 20).stream().map(PatientDto::id).toList();
+    }
+
+    @Test
+    @DisplayName("Sans accents ni casse, ligatures comprises")
+    void search_AccentAndCaseInsensitive() {
+        assertThat(ids("helene")).containsExactly(1L);
+        assertThat(ids("LEFÈ")).containsExactly(1L);
+        assertThat(ids("laeti")).containsExactly(2L);
+        assertThat(ids("coeur")).containsExactly(2L);
+        assertThat(ids("francois")).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Plusieurs mots : chacun doit etre le debut d'un terme du patient")
+    void search_AllWordsMustMatch() {
+        assertThat(ids("dupon")).containsExactly(4L, 3L);
+        assertThat(ids("jean dup")).containsExactly(3L);
+        assertThat(ids("marie.dupond@ex")).containsExactly(4L);
+        assertThat(ids("jean lef")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Une faute de frappe toleree, les correspondances exactes d'abord")
+    void search_TypoTolerant() {
+        // Lettre oubliée, inversée, remplacée
+        assertThat(ids("dupnt")).containsExactly(3L);
+        assertThat(ids("lefvere")).containsExactly(1L);
+        assertThat(ids("helaine")).isEmpty();
+        assertThat(ids("heleme")).containsExactly(1L);
+        // "dupond" exact pour Marie, à une faute de "dupont" pour Jean
+        assertThat(ids("dupond")).containsExactly(4L, 3L);
+        // Mots courts : pas de tolérance
+        assertThat(ids("jaen")).containsExactly(3L);
+        assertThat(ids("jae")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Telephone : chiffres seuls, separateurs et format +33 acceptes")
+    void search_Telephone() {
+        assertThat(ids("0612")).containsExactly(1L);
+        assertThat(ids("06 12 34")).containsExactly(1L);
+        assertThat(ids("+33 6 12 34 56 78")).containsExactly(1L);
+        assertThat(ids("01.44")).containsExactly(3L);
+        // Pas de faute tolérée sur un numéro
+        assertThat(ids("0613")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Mises a jour incrementales : ajout, modification, suppression")
+    void putAndRemove_UpdateIndex() {
+        index.put(new PatientDto(5L, "Martin", "Éloïse", "eloise.martin@example.com", null));
+        assertThat(ids("eloise")).containsExactly(5L);
+
+        index.put(new PatientDto(5L, "Bernard", "Éloïse", "eloise.bernard@example.com", null));
+        assertThat(ids("martin")).isEmpty();
+        assertThat(ids("bern")).containsExactly(5L);
+
+        index.remove(5L);
+        assertThat(ids("eloise")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Patient ajoute depuis la reconstruction : classe par nom avec les autres")
+    void put_RankedWithRebuiltEntries() {
+        index.put(new PatientDto(6L, "Dupond", "Albert", "albert@example.com", null));
+
+        assertThat(ids("dupon")).containsExactly(6L, 4L, 3L);
+        assertThat(index.search("dupon", 2)).extracting(PatientDto::prenom).containsExactly("Albert", "Marie");
+    }
+
+    @Test
+    @DisplayName("Requete vide ou sans mot : aucun resultat ; limite respectee")
+    void search_EmptyQueryAndLimit() {
+        assertThat(ids("")).isEmpty();
+        assertThat(ids(" - ")).isEmpty();
+        assertThat(index.search("d", 1)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Variantes a une faute : suppression, inversion, substitution, insertion")
+    void typoVariants_EditDistanceOne() {
+        assertThat(PatientSearchIndex.typoVariants("abcd"))
+                .contains("bcd", "acd", "abd", "abc", "bacd", "abdc", "xbcd", "abcx", "xabcd", "abxcd")
+                .doesNotContain("abcd", "abcdx");
+    }
+
+    @Test
+    @DisplayName("Requete bornee : longueur, nombre de mots, longueur d'un mot ; pas de faute au-dela de 20 lettres")
+    void queryTokens_Bounded() {
+        assertThat(PatientSearchIndex.queryTokens("a b c d e f g")).containsExactly("a", "b", "c", "d", "e");
+        assertThat(PatientSearchIndex.queryTokens("x".repeat(10_000)))
+                .containsExactly("x".repeat(PatientSearchIndex.MAX_TOKEN_LENGTH));
+        assertThat(PatientSearchIndex.queryTokens("1".repeat(10_000)))
+                .containsExactly("1".repeat(PatientSearchIndex.MAX_TOKEN_LENGTH));
+        assertThat(PatientSearchIndex.queryTokens("jean " + "y".repeat(10_000) + " dupont")).hasSize(2);
+
+        // Le préfixe exact d'un mot long est toujours trouvé, une faute ne l'est plus
+        PatientDto long21 = new PatientDto(7L, "Abcdefghijklmnopqrstu", "Paul", null, null);
+        index.put(long21);
+        assertThat(ids("abcdefghijklmnopqrstu")).containsExactly(7L);
+        assertThat(ids("abcdefghijklmnopqrstv")).isEmpty();
+        assertThat(ids("abcdefghijklmnopqrsv")).containsExactly(7L);
+    }
+}
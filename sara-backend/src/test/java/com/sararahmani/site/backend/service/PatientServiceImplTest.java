@@ -1,7 +1,10 @@
 package com.sararahmani.site.backend.service;
 
+import com.sararahmani.site.backend.dto.CursorPage;
 import com.sararahmani.site.backend.dto.PatientDto;
+import com.sararahmani.site.backend.dto.PatientSort;
 import com.sararahmani.site.backend.entity.Patient;
+import com.sararahmani.site.backend.exception.BadRequestException;
 import com.sararahmani.site.backend.repository.PatientRepository;
 import com.sararahmani.site.backend.service.impl.PatientServiceImpl;
 import com.sararahmani.site.backend.service.mapper.PatientMapper;
@@ -31,6 +34,9 @@ class PatientServiceImplTest {
     @Mock
     private PatientMapper patientMapper;
 
+    @Mock
+    private PatientSearchIndex patientSearchIndex;
+
     @InjectMocks
     private PatientServiceImpl patientService;
 
@@ -68,35 +74,58 @@ class PatientServiceImplTest {
     }
 
     @Test
-    @DisplayName("Trouver tous les patients")
-    void findAll_Success() {
-        Patient patient2 = Patient.builder()
-                .id(2L)
-                .nom("Martin")
-                .prenom("Jean")
-                .email("jean.martin@example.com")
-                .build();
+    @DisplayName("Page de patients - ligne supplementaire : curseur vers la page suivante")
+    void findPage_HasNext() {
         PatientDto dto2 = new PatientDto(2L, "Martin", "Jean", "jean.martin@example.com", null);
+        when(patientRepository.findPage("Du", PatientSort.NOM, null, null, 2))
+                .thenReturn(List.of(patientDto, dto2));
 
-        when(patientRepository.findAll()).thenReturn(List.of(patient, patient2));
-        when(patientMapper.toDto(patient)).thenReturn(patientDto);
-        when(patientMapper.toDto(patient2)).thenReturn(dto2);
+        CursorPage<PatientDto> page = patientService.findPage(" Du ", PatientSort.NOM, null, 1);
 
-        List<PatientDto> result = patientService.findAll();
+        assertThat(page.items()).containsExactly(patientDto);
+        assertThat(page.nextCursor()).isNotNull();
 
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).nom()).isEqualTo("Dupont");
-        assertThat(result.get(1).nom()).isEqualTo("Martin");
+        // La page suivante repart apres (nom, id) du dernier element
+        when(patientRepository.findPage("Du", PatientSort.NOM, "Dupont", 1L, 2)).thenReturn(List.of(dto2));
+
+        CursorPage<PatientDto> next = patientService.findPage("Du", PatientSort.NOM, page.nextCursor(), 1);
+
+        assertThat(next.items()).containsExactly(dto2);
+        assertThat(next.nextCursor()).isNull();
     }
 
     @Test
-    @DisplayName("Trouver tous les patients - liste vide")
-    void findAll_EmptyList() {
-        when(patientRepository.findAll()).thenReturn(List.of());
+    @DisplayName("Page de patients - taille bornee, recherche vide ignoree")
+    void findPage_SizeClamped() {
+        when(patientRepository.findPage(null, PatientSort.EMAIL, null, null, PatientServiceImpl.PAGE_SIZE_MAX + 1))
+                .thenReturn(List.of());
+
+        CursorPage<PatientDto> page = patientService.findPage("  ", PatientSort.EMAIL, null, 10_000);
 
-        List<PatientDto> result = patientService.findAll();
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Page de patients - curseur d'un autre tri refuse")
+    void findPage_CursorFromOtherSort() {
+        when(patientRepository.findPage(null, PatientSort.NOM, null, null, 2))
+                .thenReturn(List.of(patientDto, patientDto));
+        String cursor = patientService.findPage(null, PatientSort.NOM, null, 1).nextCursor();
+
+        assertThatThrownBy(() -> patientService.findPage(null, PatientSort.PRENOM, cursor, 1))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> patientService.findPage(null, PatientSort.NOM, "pas-un-curseur", 1))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Recherche - deleguee a l'index, limite bornee")
+    void search_LimitClamped() {
+        when(patientSearchIndex.search("dup", PatientServiceImpl.SEARCH_LIMIT_MAX)).thenReturn(List.of(patientDto));
 
-        assertThat(result).isEmpty();
+        assertThat(patientService.search("dup", 1_000)).containsExactly(patientDto);
+        verifyNoInteractions(patientRepository);
     }
 
     @Test
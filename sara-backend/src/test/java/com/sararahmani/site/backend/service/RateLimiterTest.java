@@ -0,0 +1,73 @@
+package com.sararahmani.site.backend.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.sararahmani.site.backend.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private static final RateLimitProperties.Limit LIMIT = new RateLimitProperties.Limit(3, 6);
+
+    private final AtomicLong now = new AtomicLong();
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        Ticker ticker = now::get;
+        rateLimiter = new RateLimiter(100, Duration.ofMinutes(10), ticker);
+    }
+
+    @Test
+    @DisplayName("Rafale jusqu'a la capacite puis refus avec le delai avant le prochain jeton")
+    void tryAcquire_BurstThenReject() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("login|ip|1.2.3.4", LIMIT)).isZero();
+        }
+
+        // 6 jetons par minute : un toutes les 10 secondes
+        assertThat(rateLimiter.tryAcquire("login|ip|1.2.3.4", LIMIT)).isEqualTo(TimeUnit.SECONDS.toNanos(10));
+    }
+
+    @Test
+    @DisplayName("Les jetons se rechargent avec le temps")
+    void tryAcquire_Refills() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("login|ip|1.2.3.4", LIMIT);
+        }
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertThat(rateLimiter.tryAcquire("login|ip|1.2.3.4", LIMIT)).isZero();
+        assertThat(rateLimiter.tryAcquire("login|ip|1.2.3.4", LIMIT)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Chaque cle a son propre seau")
+    void tryAcquire_KeysAreIndependent() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("login|email|a@example.com", LIMIT);
+        }
+
+        assertThat(rateLimiter.tryAcquire("login|email|a@example.com", LIMIT)).isPositive();
+        assertThat(rateLimiter.tryAcquire("login|email|b@example.com", LIMIT)).isZero();
+    }
+
+    @Test
+    @DisplayName("Cles inactives oubliees - memoire bornee")
+    void idleKeys_AreEvicted() {
+        rateLimiter.tryAcquire("login|ip|1.2.3.4", LIMIT);
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(11));
+        rateLimiter.tryAcquire("login|ip|5.6.7.8", LIMIT);
+
+        assertThat(rateLimiter.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,52 @@
+package com.sararahmani.site.backend.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenGeneratorTest {
+
+    @Test
+    @DisplayName("Token base64 URL sans padding, longueur selon l'entropie")
+    void generate_UrlSafeBase64() {
+        String token = new TokenGenerator(32).generate();
+
+        assertThat(token).hasSize(43).matches("[A-Za-z0-9_-]+");
+        assertThat(Base64.getUrlDecoder().decode(token)).hasSize(32);
+        assertThat(new TokenGenerator(16).generate()).hasSize(22);
+    }
+
+    @Test
+    @DisplayName("Tokens distincts, y compris entre threads")
+    void generate_Unique() throws Exception {
+        TokenGenerator generator = new TokenGenerator(16);
+        Set<String> tokens = ConcurrentHashMap.newKeySet();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    tokens.add(generator.generate());
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(tokens).hasSize(4000);
+    }
+
+    @Test
+    @DisplayName("Entropie insuffisante - refusee au demarrage")
+    void constructor_RejectsLowEntropy() {
+        assertThatThrownBy(() -> new TokenGenerator(8))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
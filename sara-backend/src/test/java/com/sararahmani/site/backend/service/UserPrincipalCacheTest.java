@@ -0,0 +1,125 @@
+package com.sararahmani.site.backend.service;
+
+import com.sararahmani.site.backend.dto.UserAuthState;
+import com.sararahmani.site.backend.entity.Role;
+import com.sararahmani.site.backend.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserPrincipalCacheTest {
+
+    private UserPrincipalCache principalCache;
+    private User user;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new UserPrincipalCache(60, 100, 30);
+        loads = new AtomicInteger();
+        user = User.builder()
+                .id(1L)
+                .email("test@example.com")
+                .password("encodedPassword")
+                .nom("Dupont")
+                .prenom("Jean")
+                .role(Role.PATIENT)
+                .enabled(true)
+                .build();
+    }
+
+    private Optional<User> load(String email) {
+        loads.incrementAndGet();
+        return email.equals(user.getEmail()) ? Optional.of(user) : Optional.empty();
+    }
+
+    @Test
+    @DisplayName("Le deuxieme acces est servi par le cache")
+    void get_SecondCallIsHit() {
+        principalCache.get("test@example.com", this::load);
+        Optional<User> cached = principalCache.get("test@example.com", this::load);
+
+        assertThat(cached).containsSame(user);
+        assertThat(loads).hasValue(1);
+        assertThat(principalCache.hitCount()).isEqualTo(1);
+        assertThat(principalCache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Un utilisateur inconnu n'est pas mis en cache")
+    void get_UnknownUserNotCached() {
+        assertThat(principalCache.get("inconnu@example.com", this::load)).isEmpty();
+        assertThat(principalCache.get("inconnu@example.com", this::load)).isEmpty();
+
+        assertThat(loads).hasValue(2);
+        assertThat(principalCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("L'invalidation force un rechargement")
+    void evict_ForcesReload() {
+        principalCache.get("test@example.com", this::load);
+
+        principalCache.evict(user);
+        principalCache.get("test@example.com", this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("L'etat d'authentification est mis en cache par id et invalide avec l'utilisateur")
+    void getAuthState_CachedAndEvicted() {
+        AtomicInteger stateLoads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            principalCache.getAuthState(1L, id -> {
+                stateLoads.incrementAndGet();
+                return Optional.of(new UserAuthState(0, true));
+            });
+        }
+        assertThat(stateLoads).hasValue(1);
+
+        principalCache.evict(user);
+        principalCache.getAuthState(1L, id -> {
+            stateLoads.incrementAndGet();
+            return Optional.of(new UserAuthState(1, true));
+        });
+
+        assertThat(stateLoads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Threads virtuels : cache, utilisateur inconnu non mis en cache")
+    void get_VirtualThreads_CachesKnownUsersOnly() {
+        principalCache = new UserPrincipalCache(60, 100, 30, true);
+
+        principalCache.get("test@example.com", this::load);
+        assertThat(principalCache.get("test@example.com", this::load)).containsSame(user);
+        assertThat(principalCache.get("inconnu@example.com", this::load)).isEmpty();
+
+        assertThat(loads).hasValue(2);
+        assertThat(principalCache.size()).isEqualTo(1);
+        assertThat(principalCache.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Threads virtuels : une invalidation pendant le chargement n'est pas ecrasee")
+    void get_VirtualThreads_EvictDuringLoadIsNotUndone() {
+        principalCache = new UserPrincipalCache(60, 100, 30, true);
+
+        // Révocation concurrente : l'invalidation arrive pendant la lecture de l'ancienne ligne
+        Optional<User> stale = principalCache.get("test@example.com", email -> {
+            principalCache.evict(user);
+            return load(email);
+        });
+        principalCache.get("test@example.com", this::load);
+
+        assertThat(stale).containsSame(user);
+        assertThat(loads).hasValue(2);
+    }
+}